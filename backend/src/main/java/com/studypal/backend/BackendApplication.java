@@ -1,32 +1,156 @@
 package com.studypal.backend;
 
-import com.mongodb.client.model.IndexOptions;
+import com.studypal.backend.config.MongoIndexHealthIndicator;
+import com.studypal.backend.config.UserEmailIndex;
+import com.studypal.backend.model.DiaryEntry;
+import com.studypal.backend.model.PomodoroEvent;
+import com.studypal.backend.model.PomodoroEventReceipt;
+import com.studypal.backend.model.PomodoroRollup;
+import com.studypal.backend.model.ProductivityBucket;
+import com.studypal.backend.reminder.SentReminder;
+import com.studypal.backend.service.TaskArchiver;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @SpringBootApplication
+@EnableScheduling
+@Slf4j
 public class BackendApplication {
 
 	@Autowired
 	private MongoTemplate mongoTemplate;
 
+	@Autowired
+	private MongoIndexHealthIndicator indexHealth;
+
+	// sync: create before reporting ready (dev); async: create in the background; verify: only report missing indexes
+	@Value("${startup.indexes:sync}")
+	private String indexMode;
+
 	public static void main(String[] args) {
-		SpringApplication.run(BackendApplication.class, args);
+		SpringApplication app = new SpringApplication(BackendApplication.class);
+		// records startup steps for the actuator "startup" endpoint
+		app.setApplicationStartup(new BufferingApplicationStartup(4096));
+		app.run(args);
 	}
 
 	@EventListener(ApplicationReadyEvent.class)
 	public void initIndexes() {
+		switch (indexMode.toLowerCase()) {
+			case "verify":
+				verifyIndexes();
+				break;
+			case "async":
+				indexHealth.building(indexMode);
+				Thread t = new Thread(() -> {
+					try {
+						createIndexes();
+					} catch (RuntimeException e) {
+						// nothing else would notice: the app keeps serving, reported DOWN on /actuator/health
+						log.error("Background Mongo index creation failed", e);
+						indexHealth.failed(indexMode, e);
+					}
+				}, "mongo-index-init");
+				t.setDaemon(true);
+				t.start();
+				break;
+			default:
+				try {
+					createIndexes();
+				} catch (RuntimeException e) {
+					indexHealth.failed(indexMode, e);
+					throw e;
+				}
+		}
+	}
+
+	private Map<String, List<IndexDefinition>> indexDefinitions() {
+		Map<String, List<IndexDefinition>> defs = new LinkedHashMap<>();
+		List<IndexDefinition> tasks = new ArrayList<>();
 		// ensure index on userId
-		mongoTemplate.indexOps("tasks").ensureIndex(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC));
+		tasks.add(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC));
 		// ensure compound index on userId and status
-		mongoTemplate.indexOps("tasks").ensureIndex(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC).on("status", org.springframework.data.domain.Sort.Direction.ASC));
+		tasks.add(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC).on("status", org.springframework.data.domain.Sort.Direction.ASC));
+		// ensure compound index for ordered Kanban column scans; _id breaks ties between equal ranks
+		tasks.add(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC).on("status", org.springframework.data.domain.Sort.Direction.ASC).on("rank", org.springframework.data.domain.Sort.Direction.ASC).on("_id", org.springframework.data.domain.Sort.Direction.ASC));
 		// ensure index on deadline
-		mongoTemplate.indexOps("tasks").ensureIndex(new Index().on("deadline", org.springframework.data.domain.Sort.Direction.ASC));
+		tasks.add(new Index().on("deadline", org.springframework.data.domain.Sort.Direction.ASC));
+		// partial index the archiver scans: only COMPLETED tasks carry an entry
+		tasks.add(new Index().on("updatedAt", org.springframework.data.domain.Sort.Direction.ASC)
+				.partial(PartialIndexFilter.of(Criteria.where("status").is("COMPLETED"))));
+		defs.put("tasks", tasks);
+		// built earlier by UserEmailIndex, before the web server starts; listed so verify mode reports it too
+		defs.put("users", List.of(UserEmailIndex.DEFINITION));
+		// history reads of archived tasks
+		defs.put(TaskArchiver.ARCHIVE, List.of(new Index().on("userId", org.springframework.data.domain.Sort.Direction.ASC)));
+		// annotated indexes, normally created by auto-index-creation, which is off in prod
+		MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+		for (Class<?> type : List.of(DiaryEntry.class, PomodoroRollup.class, PomodoroEventReceipt.class, SentReminder.class, ProductivityBucket.class)) {
+			List<IndexDefinition> annotated = new ArrayList<>();
+			resolver.resolveIndexFor(type).forEach(annotated::add);
+			defs.put(mongoTemplate.getCollectionName(type), annotated);
+		}
+		return defs;
+	}
+
+	private void createIndexes() {
+		long start = System.currentTimeMillis();
+		indexDefinitions().forEach((collection, defs) -> defs.forEach(def -> mongoTemplate.indexOps(collection).ensureIndex(def)));
+		// pomodoro events live in a time-series collection, which must be created explicitly
+		if (!mongoTemplate.collectionExists(PomodoroEvent.class)) {
+			mongoTemplate.createCollection(PomodoroEvent.class);
+		}
+		long millis = System.currentTimeMillis() - start;
+		indexHealth.ready(indexMode, millis);
+		log.info("Mongo indexes ensured in {} ms ({} mode)", millis, indexMode);
+	}
+
+	// One listIndexes round-trip per collection; nothing is built
+	private void verifyIndexes() {
+		List<String> missing = new ArrayList<>();
+		indexDefinitions().forEach((collection, defs) -> {
+			List<Document> existing = mongoTemplate.indexOps(collection).getIndexInfo().stream()
+					.map(BackendApplication::keysOf)
+					.collect(Collectors.toList());
+			for (IndexDefinition def : defs) {
+				if (!existing.contains(def.getIndexKeys())) {
+					log.warn("Missing index on {}: {}", collection, def.getIndexKeys().toJson());
+					missing.add(collection + " " + def.getIndexKeys().toJson());
+				}
+			}
+		});
+		if (!mongoTemplate.collectionExists(PomodoroEvent.class)) {
+			log.warn("Missing time-series collection {}", mongoTemplate.getCollectionName(PomodoroEvent.class));
+			missing.add(mongoTemplate.getCollectionName(PomodoroEvent.class) + " (time-series collection)");
+		}
+		indexHealth.verified(missing);
+	}
+
+	private static Document keysOf(IndexInfo info) {
+		Document keys = new Document();
+		info.getIndexFields().forEach(f -> keys.append(f.getKey(), f.getDirection() == org.springframework.data.domain.Sort.Direction.DESC ? -1 : 1));
+		return keys;
 	}
 
 }
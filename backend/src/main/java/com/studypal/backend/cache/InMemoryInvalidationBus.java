@@ -0,0 +1,21 @@
+package com.studypal.backend.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-process stand-in: single-node deployments and tests that wire several managers to one bus
+public class InMemoryInvalidationBus implements InvalidationBus {
+
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        listeners.forEach(l -> l.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,65 @@
+package com.studypal.backend.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process stand-in for the shared tier, used by tests to simulate several nodes
+public class InMemorySharedCacheTier implements SharedCacheTier {
+
+    private final Map<String, Map<String, Entry>> caches = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>(); // "cache::userId" and "cache::*"
+
+    private static final class Entry {
+        final String userId;
+        final byte[] value;
+
+        Entry(String userId, byte[] value) {
+            this.userId = userId;
+            this.value = value;
+        }
+    }
+
+    @Override
+    public byte[] get(String cache, String key) {
+        Entry e = entries(cache).get(key);
+        return e == null ? null : e.value;
+    }
+
+    @Override
+    public long generation(String cache, String userId) {
+        return counter(cache, userId).get() + counter(cache, "*").get();
+    }
+
+    @Override
+    public void put(String cache, String key, String userId, byte[] value, long generation) {
+        Entry entry = new Entry(userId, value);
+        entries(cache).put(key, entry);
+        if (generation(cache, userId) != generation) entries(cache).remove(key, entry);
+    }
+
+    @Override
+    public void evict(String cache, String key) {
+        entries(cache).remove(key);
+    }
+
+    @Override
+    public void evictUser(String cache, String userId) {
+        counter(cache, userId).incrementAndGet();
+        entries(cache).values().removeIf(e -> userId.equals(e.userId));
+    }
+
+    @Override
+    public void clear(String cache) {
+        counter(cache, "*").incrementAndGet();
+        entries(cache).clear();
+    }
+
+    private AtomicLong counter(String cache, String userId) {
+        return generations.computeIfAbsent(cache + "::" + userId, k -> new AtomicLong());
+    }
+
+    private Map<String, Entry> entries(String cache) {
+        return caches.computeIfAbsent(cache, c -> new ConcurrentHashMap<>());
+    }
+}
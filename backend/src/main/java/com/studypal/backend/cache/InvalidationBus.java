@@ -0,0 +1,11 @@
+package com.studypal.backend.cache;
+
+import java.util.function.Consumer;
+
+// Transport for cross-node cache invalidations; subscribers also see their own node's messages
+public interface InvalidationBus {
+
+    void publish(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> listener);
+}
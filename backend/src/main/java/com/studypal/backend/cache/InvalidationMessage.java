@@ -0,0 +1,32 @@
+package com.studypal.backend.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+// One broadcast carrying every (cache, user) scope invalidated on a node since its last flush
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "cache_invalidations")
+public class InvalidationMessage {
+
+    @Id
+    private String id;
+
+    private String origin;  // node that performed the writes
+    private long sentAt;    // epoch millis on the origin node
+    private List<Scope> scopes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Scope {
+        private String cache;
+        private String userId;
+    }
+}
@@ -0,0 +1,143 @@
+package com.studypal.backend.cache;
+
+import com.mongodb.CursorType;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Broadcasts through a capped collection that every node follows with a tailable cursor. The collection
+// is created before the bean is usable: a publish into a missing collection would create an uncapped one,
+// which grows without bound and can never be tailed.
+@Slf4j
+public class MongoInvalidationBus implements InvalidationBus, DisposableBean {
+
+    static final String COLLECTION = "cache_invalidations";
+    private static final long CAPPED_BYTES = 4L * 1024 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread tailer;
+    private volatile boolean running = true;
+
+    public MongoInvalidationBus(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        ensureCappedCollection();
+        this.tailer = new Thread(this::tail, "cache-invalidation-tailer");
+        this.tailer.setDaemon(true);
+        this.tailer.start();
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        mongoTemplate.insert(message, COLLECTION);
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        tailer.interrupt();
+    }
+
+    // Follow the collection from its current end; on cursor loss resume after the last message seen.
+    // Positions are kept in natural (insertion) order: _id values come from each writer's clock, so
+    // comparing them would skip messages from nodes whose clocks run behind.
+    private void tail() {
+        ObjectId lastSeen = null;
+        while (running) {
+            try {
+                ensureCappedCollection();
+                if (lastSeen == null || !stored(lastSeen)) {
+                    if (lastSeen != null) log.warn("Invalidation tailer fell behind the capped {}, some messages were missed", COLLECTION);
+                    lastSeen = newestId();
+                }
+                boolean skipping = lastSeen != null;
+                try (MongoCursor<Document> cursor = mongoTemplate.getCollection(COLLECTION)
+                        .find()
+                        .cursorType(CursorType.TailableAwait)
+                        .iterator()) {
+                    while (running && cursor.hasNext()) {
+                        Document doc = cursor.next();
+                        ObjectId id = doc.getObjectId("_id");
+                        if (skipping) {
+                            skipping = !id.equals(lastSeen);
+                            continue;
+                        }
+                        lastSeen = id;
+                        InvalidationMessage message = mongoTemplate.getConverter().read(InvalidationMessage.class, doc);
+                        listeners.forEach(l -> l.accept(message));
+                    }
+                }
+            } catch (IllegalStateException e) {
+                if (!running) return;
+                log.error("Invalidation tailer cannot follow {}, retrying: {}", COLLECTION, e.getMessage());
+            } catch (Exception e) {
+                if (!running) return;
+                log.warn("Invalidation tailer lost its cursor, retrying: {}", e.getMessage());
+            }
+            sleepQuietly(1000);
+        }
+    }
+
+    // Capped collections keep insertion order, so the last document in natural order is the newest
+    private ObjectId newestId() {
+        Document newest = mongoTemplate.getCollection(COLLECTION).find()
+                .sort(new Document("$natural", -1))
+                .limit(1)
+                .first();
+        return newest != null ? newest.getObjectId("_id") : null;
+    }
+
+    private boolean stored(ObjectId id) {
+        return mongoTemplate.getCollection(COLLECTION).find(Filters.eq("_id", id)).first() != null;
+    }
+
+    // A tailable cursor on an empty capped collection dies immediately, so seed it with a marker
+    private void ensureCappedCollection() {
+        Boolean capped = capped();
+        if (capped == null) {
+            try {
+                mongoTemplate.createCollection(COLLECTION, CollectionOptions.empty().capped().size(CAPPED_BYTES));
+                mongoTemplate.getCollection(COLLECTION).insertOne(new Document("marker", true));
+                return;
+            } catch (Exception e) {
+                log.debug("Capped collection {} already being created by another node", COLLECTION);
+                capped = capped();
+            }
+        }
+        if (!Boolean.TRUE.equals(capped)) {
+            throw new IllegalStateException("Collection " + COLLECTION + " exists but is not capped; drop it so it can be"
+                    + " recreated as a capped collection, cache invalidations cannot be delivered until then");
+        }
+    }
+
+    // null when the collection does not exist
+    private Boolean capped() {
+        Document info = mongoTemplate.getDb().listCollections().filter(Filters.eq("name", COLLECTION)).first();
+        if (info == null) return null;
+        Document options = info.get("options", Document.class);
+        return options != null && options.getBoolean("capped", false);
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
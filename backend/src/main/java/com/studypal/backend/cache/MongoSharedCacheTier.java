@@ -0,0 +1,97 @@
+package com.studypal.backend.cache;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Shared tier in the cache_entries collection; a TTL index bounds staleness if an invalidation is missed.
+// Eviction generations live in cache_generations, one counter per (cache, user) plus one per cache for clear().
+public class MongoSharedCacheTier implements SharedCacheTier {
+
+    static final String COLLECTION = "cache_entries";
+    static final String GENERATIONS = "cache_generations";
+
+    private final MongoTemplate mongoTemplate;
+    private final long ttlMillis;
+    private volatile boolean indexed;
+
+    public MongoSharedCacheTier(MongoTemplate mongoTemplate, long ttlSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    @Override
+    public byte[] get(String cache, String key) {
+        Document doc = collection().find(Filters.and(Filters.eq("_id", id(cache, key)), Filters.gt("expiresAt", new Date()))).first();
+        return doc == null ? null : doc.get("value", Binary.class).getData();
+    }
+
+    @Override
+    public long generation(String cache, String userId) {
+        long generation = 0;
+        for (Document doc : mongoTemplate.getCollection(GENERATIONS).find(Filters.in("_id", List.of(id(cache, userId), id(cache, "*"))))) {
+            generation += doc.get("gen", Number.class).longValue();
+        }
+        return generation;
+    }
+
+    // Write, then re-read the generation: an eviction bumps it before deleting, so either its delete
+    // removes this entry or the re-read sees the bump and the entry is taken back here
+    @Override
+    public void put(String cache, String key, String userId, byte[] value, long generation) {
+        Document doc = new Document("_id", id(cache, key))
+                .append("cache", cache)
+                .append("userId", userId)
+                .append("value", new Binary(value))
+                .append("expiresAt", new Date(System.currentTimeMillis() + ttlMillis));
+        collection().replaceOne(Filters.eq("_id", doc.get("_id")), doc, new ReplaceOptions().upsert(true));
+        if (generation(cache, userId) != generation) evict(cache, key);
+    }
+
+    @Override
+    public void evict(String cache, String key) {
+        collection().deleteOne(Filters.eq("_id", id(cache, key)));
+    }
+
+    @Override
+    public void evictUser(String cache, String userId) {
+        bump(cache, userId);
+        collection().deleteMany(Filters.and(Filters.eq("cache", cache), Filters.eq("userId", userId)));
+    }
+
+    @Override
+    public void clear(String cache) {
+        bump(cache, "*");
+        collection().deleteMany(Filters.eq("cache", cache));
+    }
+
+    private void bump(String cache, String userId) {
+        mongoTemplate.getCollection(GENERATIONS).updateOne(Filters.eq("_id", id(cache, userId)), Updates.inc("gen", 1L),
+                new UpdateOptions().upsert(true));
+    }
+
+    private MongoCollection<Document> collection() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        if (!indexed) {
+            collection.createIndex(Indexes.ascending("expiresAt"), new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+            collection.createIndex(Indexes.ascending("cache", "userId"));
+            indexed = true;
+        }
+        return collection;
+    }
+
+    private static String id(String cache, String key) {
+        return cache + "::" + key;
+    }
+}
@@ -0,0 +1,208 @@
+package com.studypal.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local Caffeine (L1) in front of an optional shared tier (L2). Keys are user-scoped, either
+// "userId" or "userId:...", and evicting any key drops the owner's whole scope on every node.
+// Local entries carry the owner's eviction generation: evicting bumps it instead of scanning the
+// keyspace, stale entries are dropped when next read or aged out by the cache's bounds, and a
+// loader that started before an eviction does not cache what it read. Generations are only tracked for
+// the most recently evicted users; a user pushed out falls back to a floor at least as high as their
+// last generation, so their stale entries stay stale and the tracking stays bounded.
+@Slf4j
+public class NearCache extends AbstractValueAdaptingCache {
+
+    // Shared entries are read from the database, so only the types this app caches may be deserialized
+    static final ObjectInputFilter SHARED_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=32;com.studypal.backend.**;java.lang.*;java.util.*;java.time.*;java.math.*;"
+                    + "org.springframework.data.domain.*;org.springframework.cache.support.NullValue;!*");
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final SharedCacheTier shared;
+    private final NearCacheManager manager;
+    static final long MAX_TRACKED_USERS = 100_000;
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+    // the eviction listener runs inside the removal, so the floor is raised before the user reads as untracked
+    private final Cache<String, Long> generations;
+    private final AtomicLong clears = new AtomicLong();
+
+    private static final class Entry {
+        final long generation;
+        final Object value;
+
+        Entry(long generation, Object value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    NearCache(String name, Cache<Object, Object> local, SharedCacheTier shared, NearCacheManager manager) {
+        this(name, local, shared, manager, MAX_TRACKED_USERS);
+    }
+
+    NearCache(String name, Cache<Object, Object> local, SharedCacheTier shared, NearCacheManager manager, long maxTrackedUsers) {
+        super(true);
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxTrackedUsers)
+                .<String, Long>evictionListener((user, generation, cause) -> floor.accumulateAndGet(generation, Math::max))
+                .build();
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String userId = userOf(key);
+        Entry entry = fresh(key, userId);
+        if (entry != null) return entry.value;
+        if (shared == null) return null;
+        long generation = generation(userId);
+        Object value = readShared(key);
+        if (value != null && generation == generation(userId)) local.put(key, new Entry(generation, value));
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String userId = userOf(key);
+        Entry hit = fresh(key, userId);
+        if (hit != null) return (T) fromStoreValue(hit.value);
+        Object[] loaded = new Object[1];
+        Entry entry = (Entry) local.get(key, k -> {
+            long generation = generation(userId);
+            Object value = shared == null ? null : readShared(k);
+            if (value == null) {
+                long sharedGeneration = shared == null ? 0 : shared.generation(name, userId);
+                try {
+                    value = toStoreValue(valueLoader.call());
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(k, valueLoader, e);
+                }
+                writeShared(k, value, sharedGeneration);
+            }
+            loaded[0] = value;
+            // evicted while loading: hand the value to this caller only
+            return generation == generation(userId) ? new Entry(generation, value) : null;
+        });
+        return (T) fromStoreValue(entry != null ? entry.value : loaded[0]);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object stored = toStoreValue(value);
+        local.put(key, new Entry(generation(userOf(key)), stored));
+        if (shared != null) writeShared(key, stored, shared.generation(name, userOf(key)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        String userId = userOf(key);
+        evictLocal(userId);
+        if (shared != null) shared.evictUser(name, userId);
+        manager.enqueue(name, userId);
+    }
+
+    @Override
+    public void clear() {
+        evictLocal(null);
+        if (shared != null) shared.clear(name);
+        manager.enqueue(name, null);
+    }
+
+    // Applied for remote invalidations; the shared tier was already cleaned by the writer
+    void evictLocal(String userId) {
+        if (userId == null) {
+            clears.incrementAndGet();
+            local.invalidateAll();
+            return;
+        }
+        generations.asMap().merge(userId, evictions.incrementAndGet(), Math::max);
+    }
+
+    static String userOf(Object key) {
+        String s = key.toString();
+        int sep = s.indexOf(':');
+        return sep < 0 ? s : s.substring(0, sep);
+    }
+
+    // Neither part ever goes down for a user, and one of them goes up on every eviction that covers the user
+    private long generation(String userId) {
+        Long user = generations.getIfPresent(userId);
+        return clears.get() + (user == null ? floor.get() : user);
+    }
+
+    long trackedUsers() {
+        generations.cleanUp();
+        return generations.estimatedSize();
+    }
+
+    private Entry fresh(Object key, String userId) {
+        Entry entry = (Entry) local.getIfPresent(key);
+        if (entry == null || entry.generation == generation(userId)) return entry;
+        local.asMap().remove(key, entry);
+        return null;
+    }
+
+    private Object readShared(Object key) {
+        byte[] bytes = shared.get(name, key.toString());
+        if (bytes == null) return null;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(SHARED_FILTER);
+            return in.readObject();
+        } catch (InvalidClassException e) {
+            log.error("Rejected shared entry {}::{} holding a type outside the allow-list: {}", name, key, e.getMessage());
+            shared.evict(name, key.toString());
+            return null;
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Dropping unreadable shared entry {}::{}: {}", name, key, e.getMessage());
+            shared.evict(name, key.toString());
+            return null;
+        }
+    }
+
+    private void writeShared(Object key, Object value, long generation) {
+        if (shared == null) return;
+        if (!(value instanceof Serializable)) {
+            log.debug("Not sharing non-serializable value for {}::{}", name, key);
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            log.debug("Not sharing {}::{}: {}", name, key, e.getMessage());
+            return;
+        }
+        shared.put(name, key.toString(), userOf(key), bytes.toByteArray(), generation);
+    }
+}
@@ -0,0 +1,130 @@
+package com.studypal.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Creates NearCaches on demand and relays their invalidations over the bus. Scopes invalidated
+// between two flushes are coalesced, so a burst of writes for one user sends one scope.
+@Slf4j
+public class NearCacheManager implements CacheManager, DisposableBean {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Caffeine<Object, Object> defaultSpec;
+    private final Map<String, Caffeine<Object, Object>> customSpecs = new ConcurrentHashMap<>();
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>();
+    private final SharedCacheTier shared;
+    private final InvalidationBus bus;
+    private final Map<InvalidationMessage.Scope, Long> pending = new ConcurrentHashMap<>(); // scope -> first enqueue time
+    private final ScheduledExecutorService flusher;
+
+    private final Timer lag;
+    private final Counter published;
+    private final Counter coalesced;
+    private final Counter received;
+
+    public NearCacheManager(Caffeine<Object, Object> defaultSpec, SharedCacheTier shared, InvalidationBus bus,
+                            MeterRegistry registry, long flushMillis) {
+        this.defaultSpec = defaultSpec;
+        this.shared = shared;
+        this.bus = bus;
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from the first coalesced write on the origin to eviction on this node (includes clock skew)")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.published = registry.counter("cache.invalidation.published");
+        this.coalesced = registry.counter("cache.invalidation.coalesced");
+        this.received = registry.counter("cache.invalidation.received");
+        bus.subscribe(this::onMessage);
+
+        if (flushMillis > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "cache-invalidation-flusher");
+                t.setDaemon(true);
+                return t;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null; // caller flushes explicitly
+        }
+    }
+
+    public void registerCustomCache(String name, Caffeine<Object, Object> spec) {
+        customSpecs.put(name, spec);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n ->
+                new NearCache(n, customSpecs.getOrDefault(n, defaultSpec).build(), shared, this));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    void enqueue(String cache, String userId) {
+        if (pending.putIfAbsent(new InvalidationMessage.Scope(cache, userId), System.currentTimeMillis()) != null) {
+            coalesced.increment();
+        }
+    }
+
+    // Publish everything queued since the last flush as a single message
+    public void flush() {
+        if (pending.isEmpty()) return;
+        List<InvalidationMessage.Scope> scopes = new ArrayList<>();
+        long oldest = Long.MAX_VALUE;
+        for (Iterator<Map.Entry<InvalidationMessage.Scope, Long>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<InvalidationMessage.Scope, Long> e = it.next();
+            scopes.add(e.getKey());
+            oldest = Math.min(oldest, e.getValue());
+            it.remove();
+        }
+        if (scopes.isEmpty()) return;
+        try {
+            bus.publish(new InvalidationMessage(null, nodeId, oldest, scopes));
+            published.increment(scopes.size());
+        } catch (Exception e) {
+            log.warn("Failed to publish {} cache invalidations, will retry: {}", scopes.size(), e.getMessage());
+            for (InvalidationMessage.Scope scope : scopes) pending.putIfAbsent(scope, oldest);
+        }
+    }
+
+    private void onMessage(InvalidationMessage message) {
+        if (message.getScopes() == null || nodeId.equals(message.getOrigin())) return;
+        for (InvalidationMessage.Scope scope : message.getScopes()) {
+            NearCache cache = caches.get(scope.getCache());
+            if (cache != null) cache.evictLocal(scope.getUserId());
+        }
+        received.increment(message.getScopes().size());
+        lag.record(Math.max(0, System.currentTimeMillis() - message.getSentAt()), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (flusher != null) flusher.shutdown();
+        flush();
+    }
+}
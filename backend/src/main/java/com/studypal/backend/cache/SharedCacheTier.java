@@ -0,0 +1,19 @@
+package com.studypal.backend.cache;
+
+// Second-level store shared by all nodes; values are opaque serialized bytes
+public interface SharedCacheTier {
+
+    byte[] get(String cache, String key);
+
+    // Bumped by every evictUser/clear touching the user. A loader reads it before going to the database
+    // and passes it to put, which drops the value if an eviction happened in between.
+    long generation(String cache, String userId);
+
+    void put(String cache, String key, String userId, byte[] value, long generation);
+
+    void evict(String cache, String key);
+
+    void evictUser(String cache, String userId);
+
+    void clear(String cache);
+}
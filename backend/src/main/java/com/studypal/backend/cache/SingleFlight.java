@@ -0,0 +1,80 @@
+package com.studypal.backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Collapses concurrent identical loads: the first caller for a key runs the query, callers arriving while
+// it is in flight wait for it and share its result. Nothing is kept once the call completes.
+// Keys are user-scoped like the cache keys ("userId" or "userId:..."), so a write can invalidate them.
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter timedOut;
+
+    public SingleFlight(String name, long timeoutMillis, MeterRegistry registry) {
+        this.timeoutMillis = timeoutMillis;
+        this.executed = Counter.builder("singleflight.executed").tag("name", name)
+                .description("Loads actually run").register(registry);
+        this.coalesced = Counter.builder("singleflight.coalesced").tag("name", name)
+                .description("Callers served by another caller's in-flight load").register(registry);
+        this.timedOut = Counter.builder("singleflight.timeouts").tag("name", name)
+                .description("Callers that gave up waiting and ran their own load").register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader == null) {
+            executed.increment();
+            try {
+                T value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+        try {
+            T value = (T) leader.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return value;
+        } catch (TimeoutException e) {
+            // a stuck leader must not hold every follower hostage
+            timedOut.increment();
+            executed.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key, e);
+        }
+    }
+
+    // Called after a write: in-flight loads of the scope may predate it, so later callers start a fresh one.
+    // Callers already waiting keep the old result; their requests began before the write finished.
+    public void invalidate(String scope) {
+        String prefix = scope + ":";
+        inFlight.keySet().removeIf(key -> key.equals(scope) || key.startsWith(prefix));
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
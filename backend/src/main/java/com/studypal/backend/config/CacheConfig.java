@@ -1,11 +1,19 @@
 package com.studypal.backend.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studypal.backend.cache.InMemoryInvalidationBus;
+import com.studypal.backend.cache.InvalidationBus;
+import com.studypal.backend.cache.MongoInvalidationBus;
+import com.studypal.backend.cache.MongoSharedCacheTier;
+import com.studypal.backend.cache.NearCacheManager;
+import com.studypal.backend.cache.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
 
 import java.util.concurrent.TimeUnit;
 
@@ -18,10 +26,30 @@ public class CacheConfig {
         return Caffeine.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).maximumSize(10_000);
     }
 
+    // cache.invalidation.transport: "local" for a single instance, "mongo" to fan out over a capped collection
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager manager = new CaffeineCacheManager();
-        manager.setCaffeine(caffeine);
+    public InvalidationBus invalidationBus(@Value("${cache.invalidation.transport:local}") String transport, MongoTemplate mongoTemplate) {
+        return "mongo".equalsIgnoreCase(transport) ? new MongoInvalidationBus(mongoTemplate) : new InMemoryInvalidationBus();
+    }
+
+    @Bean
+    public CacheManager cacheManager(Caffeine<Object, Object> caffeine, InvalidationBus invalidationBus, MeterRegistry meterRegistry,
+                                     MongoTemplate mongoTemplate,
+                                     @Value("${cache.shared.enabled:false}") boolean sharedEnabled,
+                                     @Value("${cache.shared.ttl-seconds:30}") long sharedTtlSeconds,
+                                     @Value("${cache.invalidation.flush-millis:50}") long flushMillis) {
+        NearCacheManager manager = new NearCacheManager(caffeine,
+                sharedEnabled ? new MongoSharedCacheTier(mongoTemplate, sharedTtlSeconds) : null,
+                invalidationBus, meterRegistry, flushMillis);
+        // dashboard snapshots include time-relative widgets (overdue, today), so keep them short-lived
+        manager.registerCustomCache("dashboard", Caffeine.newBuilder().expireAfterWrite(30, TimeUnit.SECONDS).maximumSize(10_000));
         return manager;
     }
+
+    // Concurrent identical TaskService reads share one Mongo query
+    @Bean
+    public SingleFlight taskReads(MeterRegistry meterRegistry,
+                                  @Value("${tasks.singleflight.timeout-ms:2000}") long timeoutMillis) {
+        return new SingleFlight("tasks", timeoutMillis, meterRegistry);
+    }
 }
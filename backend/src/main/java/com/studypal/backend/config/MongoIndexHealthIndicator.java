@@ -0,0 +1,39 @@
+package com.studypal.backend.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Outcome of the startup index work in BackendApplication, shown as the "mongoIndex" health component.
+// A background build still running is UNKNOWN, which does not lower the overall status; a failed one is DOWN.
+@Component
+public class MongoIndexHealthIndicator implements HealthIndicator {
+
+    private volatile Health health = Health.unknown().withDetail("state", "pending").build();
+
+    public void building(String mode) {
+        health = Health.unknown().withDetail("state", "building").withDetail("mode", mode).build();
+    }
+
+    public void ready(String mode, long millis) {
+        health = Health.up().withDetail("state", "ready").withDetail("mode", mode).withDetail("millis", millis).build();
+    }
+
+    // verify mode: nothing is built, so missing indexes are reported rather than failed
+    public void verified(List<String> missing) {
+        health = Health.up().withDetail("state", missing.isEmpty() ? "verified" : "missing")
+                .withDetail("mode", "verify").withDetail("missing", missing).build();
+    }
+
+    public void failed(String mode, Exception e) {
+        health = Health.down().withDetail("state", "failed").withDetail("mode", mode)
+                .withDetail("error", String.valueOf(e.getMessage())).build();
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+}
@@ -0,0 +1,18 @@
+package com.studypal.backend.config;
+
+import com.studypal.backend.reminder.InMemoryReminderSink;
+import com.studypal.backend.reminder.LoggingReminderSink;
+import com.studypal.backend.reminder.ReminderSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReminderConfig {
+
+    // reminders.sink: "log" writes reminders to the application log, "memory" keeps the latest in memory
+    @Bean
+    public ReminderSink reminderSink(@Value("${reminders.sink:log}") String sink) {
+        return "memory".equalsIgnoreCase(sink) ? new InMemoryReminderSink() : new LoggingReminderSink();
+    }
+}
@@ -0,0 +1,44 @@
+package com.studypal.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reports JVM start -> ready -> first served request, so autoscaled instances can be compared.
+// Per-step detail is available from /actuator/startup.
+@Component
+@Slf4j
+public class StartupTimingReporter {
+
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    public StartupTimingReporter(MeterRegistry registry) {
+        TimeGauge.builder("application.first.request.time", firstRequestMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until the first request was served")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        log.info("Startup: ready {} ms after JVM start (context {} ms)",
+                System.currentTimeMillis() - jvmStart, event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis());
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (firstRequestMillis.get() >= 0) return;
+        long elapsed = System.currentTimeMillis() - jvmStart;
+        if (firstRequestMillis.compareAndSet(-1, elapsed)) {
+            log.info("Startup: first request ({}) served {} ms after JVM start", event.getRequestUrl(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.studypal.backend.config;
+
+import com.studypal.backend.tracing.MongoCommandTimer;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    // Mongo command time is attributed to the traced request (Server-Timing "db")
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandTimer() {
+        return builder -> builder.addCommandListener(new MongoCommandTimer());
+    }
+}
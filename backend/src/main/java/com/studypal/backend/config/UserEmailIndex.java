@@ -0,0 +1,83 @@
+package com.studypal.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Registration inserts without reading first and relies on this index to reject a second account for an
+// email, so unlike the other indexes it is in place before the web server starts, in every startup.indexes
+// mode, and startup fails if it cannot be. Existing accounts whose emails differ only in case or surrounding
+// spaces would make the build fail; they are logged so they can be merged or renamed first.
+@Component
+@Slf4j
+public class UserEmailIndex {
+
+    static final String COLLECTION = "users";
+    private static final int MAX_REPORTED = 100;
+
+    // one account per email regardless of case
+    public static final IndexDefinition DEFINITION = new Index().on("email", Sort.Direction.ASC).unique()
+            .collation(Collation.of("en").strength(Collation.ComparisonLevel.secondary()));
+
+    private final MongoTemplate mongoTemplate;
+    private final String indexMode;
+
+    @Autowired
+    public UserEmailIndex(MongoTemplate mongoTemplate, @Value("${startup.indexes:sync}") String indexMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexMode = indexMode;
+    }
+
+    @PostConstruct
+    public void ensure() {
+        // the duplicate scan reads every account, so it only runs when the index still has to be built
+        if (present()) return;
+        if ("verify".equalsIgnoreCase(indexMode)) {
+            throw new IllegalStateException("Unique index on users.email is missing and registration depends on it;"
+                    + " start once with startup.indexes=sync or create it by hand");
+        }
+        List<Document> duplicates = duplicates();
+        if (!duplicates.isEmpty()) {
+            duplicates.forEach(d -> log.error("Email {} belongs to {} accounts: {}", d.get("_id"), d.get("count"), d.get("accounts")));
+            throw new IllegalStateException(duplicates.size() + (duplicates.size() == MAX_REPORTED ? " or more" : "")
+                    + " emails belong to more than one account (listed above); merge or rename them so the unique"
+                    + " users.email index can be built");
+        }
+        long start = System.currentTimeMillis();
+        mongoTemplate.indexOps(COLLECTION).ensureIndex(DEFINITION);
+        log.info("Unique users.email index ensured in {} ms", System.currentTimeMillis() - start);
+    }
+
+    // Accounts grouped by normalized email (see User.normalizeEmail), only groups with more than one
+    List<Document> duplicates() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("email").and(StringOperators.ToLower.lowerValueOf(StringOperators.Trim.valueOf("email"))).as("key"),
+                Aggregation.group("key").count().as("count").push("_id").as("accounts"),
+                Aggregation.match(Criteria.where("count").gt(1)),
+                Aggregation.limit(MAX_REPORTED));
+        return mongoTemplate.aggregate(aggregation, COLLECTION, Document.class).getMappedResults();
+    }
+
+    private boolean present() {
+        for (IndexInfo info : mongoTemplate.indexOps(COLLECTION).getIndexInfo()) {
+            if (info.isUnique() && info.getIndexFields().size() == 1 && "email".equals(info.getIndexFields().get(0).getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,18 @@
 package com.studypal.backend.config;
 
 import com.studypal.backend.security.RateLimitInterceptor;
+import com.studypal.backend.tracing.PhaseInterceptor;
+import com.studypal.backend.tracing.RequestTrace;
+import com.studypal.backend.tracing.TracingJacksonConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
@@ -14,6 +21,19 @@ public class WebMvcConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // tracing phase markers bracket the real interceptors
+        registry.addInterceptor(new PhaseInterceptor(RequestTrace.Phase.INTERCEPTOR)).addPathPatterns("/api/**");
         registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(new PhaseInterceptor(RequestTrace.Phase.HANDLER)).addPathPatterns("/api/**");
+    }
+
+    // Swap Boot's Jackson converter for one that times serialization, keeping the configured ObjectMapper
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson) {
+                converters.set(i, new TracingJacksonConverter(jackson.getObjectMapper()));
+            }
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.studypal.backend.controller;
+
+import com.studypal.backend.model.ProductivityBucket;
+import com.studypal.backend.service.ProductivityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final ProductivityService productivityService;
+
+    @Autowired
+    public AnalyticsController(ProductivityService productivityService) {
+        this.productivityService = productivityService;
+    }
+
+    // Daily or weekly completion counts (on time / late / no deadline), served from buckets only
+    @GetMapping("/user/{userId}/productivity")
+    public ResponseEntity<List<ProductivityBucket>> productivity(@PathVariable String userId,
+                                                                 @RequestParam(defaultValue = "DAILY") String period,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(productivityService.getSeries(userId, period, from, to));
+    }
+}
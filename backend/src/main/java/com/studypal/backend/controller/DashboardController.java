@@ -0,0 +1,25 @@
+package com.studypal.backend.controller;
+
+import com.studypal.backend.payload.DashboardSummary;
+import com.studypal.backend.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    // Every dashboard widget in one round-trip
+    @GetMapping("/{userId}")
+    public ResponseEntity<DashboardSummary> dashboard(@PathVariable String userId) {
+        return ResponseEntity.ok(dashboardService.getDashboard(userId));
+    }
+}
@@ -0,0 +1,63 @@
+package com.studypal.backend.controller;
+
+import com.studypal.backend.model.DiaryEntry;
+import com.studypal.backend.model.DiarySummary;
+import com.studypal.backend.service.DiaryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/diary")
+public class DiaryController {
+
+    private final DiaryService diaryService;
+
+    @Autowired
+    public DiaryController(DiaryService diaryService) {
+        this.diaryService = diaryService;
+    }
+
+    // Create or replace the entry for a day
+    @PutMapping("/{userId}/{date}")
+    public ResponseEntity<DiaryEntry> saveEntry(@PathVariable String userId,
+                                                @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                @Valid @RequestBody DiaryEntry entry) {
+        return ResponseEntity.ok(diaryService.saveEntry(userId, date, entry));
+    }
+
+    @GetMapping("/{userId}/{date}")
+    public ResponseEntity<DiaryEntry> getEntry(@PathVariable String userId,
+                                               @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return diaryService.getEntry(userId, date)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    @DeleteMapping("/{userId}/{date}")
+    public ResponseEntity<Void> deleteEntry(@PathVariable String userId,
+                                            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        diaryService.deleteEntry(userId, date);
+        return ResponseEntity.noContent().build();
+    }
+
+    // History page: pass the oldest date of the previous page as `before` to continue
+    @GetMapping("/{userId}")
+    public ResponseEntity<List<DiaryEntry>> history(@PathVariable String userId,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+                                                    @RequestParam(defaultValue = "30") int limit) {
+        return ResponseEntity.ok(diaryService.history(userId, before, limit));
+    }
+
+    // Averages, streaks and rating/task correlation from the precomputed summary
+    @GetMapping("/{userId}/summary")
+    public ResponseEntity<DiarySummary> summary(@PathVariable String userId) {
+        return ResponseEntity.ok(diaryService.getSummary(userId));
+    }
+}
@@ -0,0 +1,31 @@
+package com.studypal.backend.controller;
+
+import com.studypal.backend.payload.DayPlan;
+import com.studypal.backend.service.PlanningService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/plan")
+public class PlanController {
+
+    private final PlanningService planningService;
+
+    @Autowired
+    public PlanController(PlanningService planningService) {
+        this.planningService = planningService;
+    }
+
+    // Daily plan: open tasks scheduled into the user's available hours
+    @GetMapping("/{userId}/{date}")
+    public ResponseEntity<DayPlan> plan(@PathVariable String userId,
+                                        @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                        @RequestParam(defaultValue = "8") int hours,
+                                        @RequestParam(defaultValue = "false") boolean optimize) {
+        return ResponseEntity.ok(planningService.planDay(userId, date, hours, optimize));
+    }
+}
@@ -0,0 +1,45 @@
+package com.studypal.backend.controller;
+
+import com.studypal.backend.model.PomodoroRollup;
+import com.studypal.backend.payload.PomodoroEventBatch;
+import com.studypal.backend.service.PomodoroService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pomodoro")
+public class PomodoroController {
+
+    private final PomodoroService pomodoroService;
+
+    @Autowired
+    public PomodoroController(PomodoroService pomodoroService) {
+        this.pomodoroService = pomodoroService;
+    }
+
+    // Batched upload of START/STOP/INTERRUPT events buffered by the client; safe to retry, events
+    // already ingested under the same eventId are reported as duplicates and not counted again
+    @PostMapping("/events")
+    public ResponseEntity<Map<String, Integer>> ingest(@Valid @RequestBody PomodoroEventBatch batch) {
+        int accepted = pomodoroService.ingest(batch.getUserId(), batch.getEvents());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("accepted", accepted, "duplicates", batch.getEvents().size() - accepted));
+    }
+
+    // Daily or weekly focus history, served from rollups only
+    @GetMapping("/user/{userId}/rollups")
+    public ResponseEntity<List<PomodoroRollup>> rollups(@PathVariable String userId,
+                                                        @RequestParam(defaultValue = "DAILY") String period,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(pomodoroService.getRollups(userId, period, from, to));
+    }
+}
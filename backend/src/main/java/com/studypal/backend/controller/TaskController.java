@@ -1,15 +1,22 @@
 package com.studypal.backend.controller;
 
 import com.studypal.backend.model.Task;
+import com.studypal.backend.payload.ImportReport;
+import com.studypal.backend.payload.TaskMoveRequest;
+import com.studypal.backend.payload.TaskPatchRequest;
+import com.studypal.backend.payload.TaskStatusRequest;
+import com.studypal.backend.service.TaskImportService;
 import com.studypal.backend.service.TaskService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.Validator;
 import jakarta.validation.ConstraintViolation;
+import java.io.IOException;
 import java.util.Set;
 
 import java.util.List;
@@ -20,11 +27,13 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
     private final Validator validator;
 
     @Autowired
-    public TaskController(TaskService taskService, Validator validator) {
+    public TaskController(TaskService taskService, TaskImportService taskImportService, Validator validator) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
         this.validator = validator;
     }
 
@@ -38,14 +47,26 @@ public class TaskController {
         }
 
         Task createdTask = taskService.createTask(task);
-        log.info("createTask: created {} for user {}", createdTask.getId(), createdTask.getUserId());
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
 
+    // Bulk import: send the CSV or .ics file as the raw request body (text/csv or text/calendar), not as a
+    // multipart form, so it is parsed straight off the socket instead of being spooled first
+    @PostMapping("/import")
+    public ResponseEntity<ImportReport> importTasks(@RequestParam String userId,
+                                                    @RequestParam(required = false) String format,
+                                                    HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(taskImportService.importTasks(userId, format, request.getContentType(), request.getInputStream()));
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getTasksByUserId(@PathVariable String userId,
                                               @RequestParam(name = "page", required = false) Integer page,
-                                              @RequestParam(name = "size", required = false) Integer size) {
+                                              @RequestParam(name = "size", required = false) Integer size,
+                                              @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived) {
+        if (includeArchived) {
+            return ResponseEntity.ok(taskService.getTaskHistory(userId));
+        }
         if (page != null && size != null) {
             var p = taskService.getTasksByUserId(userId, page, size);
             return ResponseEntity.ok(p);
@@ -70,17 +91,43 @@ public class TaskController {
             throw new com.studypal.backend.exception.BadRequestException(msg);
         }
         Task updated = taskService.updateTask(id, updatedTask);
-        log.info("updateTask: updated {}", updated.getId());
         return ResponseEntity.ok(updated);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Task> patchTask(@PathVariable String id, @Valid @RequestBody TaskPatchRequest patch) {
+        return ResponseEntity.ok(taskService.patchTask(id, patch));
+    }
+
+    @PutMapping("/{id}/status")
+    public ResponseEntity<Task> updateTaskStatus(@PathVariable String id, @Valid @RequestBody TaskStatusRequest request) {
+        return ResponseEntity.ok(taskService.updateTaskStatus(id, request.getStatus(), request.getVersion()));
+    }
+
+    // Kanban drop: only the moved task is written
+    @PutMapping("/{id}/move")
+    public ResponseEntity<Task> moveTask(@PathVariable String id, @Valid @RequestBody TaskMoveRequest move) {
+        return ResponseEntity.ok(taskService.moveTask(id, move));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable String id) {
     taskService.deleteTask(id);
-    log.info("deleteTask: deleted {}", id);
     return ResponseEntity.noContent().build();
     }
 
+    // Kanban column in display order
+    @GetMapping("/user/{userId}/column/{status}")
+    public ResponseEntity<List<Task>> getColumn(@PathVariable String userId, @PathVariable String status) {
+        return ResponseEntity.ok(taskService.getColumn(userId, status));
+    }
+
+    // Full history including archived completed tasks
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<List<Task>> getHistory(@PathVariable String userId) {
+        return ResponseEntity.ok(taskService.getTaskHistory(userId));
+    }
+
     // 1) Overdue tasks
     @GetMapping("/user/{userId}/overdue")
     public ResponseEntity<List<Task>> getOverdueTasks(@PathVariable String userId) {
@@ -117,7 +164,8 @@ public class TaskController {
 
     // 6) Task statistics
     @GetMapping("/user/{userId}/stats")
-    public ResponseEntity<Object> stats(@PathVariable String userId) {
-        return ResponseEntity.ok(taskService.taskStatistics(userId));
+    public ResponseEntity<Object> stats(@PathVariable String userId,
+                                        @RequestParam(name = "includeArchived", defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok(taskService.taskStatistics(userId, includeArchived));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.studypal.backend.controller;
 
+import com.studypal.backend.exception.UserAlreadyExistsException;
 import com.studypal.backend.model.User;
 import com.studypal.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +57,8 @@ public class UserController {
         try {
             User user = userService.updateUser(id, updatedUser);
             return ResponseEntity.ok(user);
+        } catch (UserAlreadyExistsException e) {
+            throw e; // 409 from GlobalExceptionHandler
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -0,0 +1,20 @@
+package com.studypal.backend.event;
+
+import com.studypal.backend.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+// Published by TaskService after every task write so per-user derived state can be refreshed
+@Getter
+@ToString
+@AllArgsConstructor
+public class TaskChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final String userId;
+    private final String taskId; // null when several tasks of the user changed at once
+    private final Type type;
+    private final Task task;     // state after the write (before it, for DELETED); null for bulk changes
+}
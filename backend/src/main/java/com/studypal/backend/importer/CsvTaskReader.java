@@ -0,0 +1,143 @@
+package com.studypal.backend.importer;
+
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// RFC 4180 CSV with a header row naming the columns (title required; description, priority, status,
+// startDate, deadline/due, estimatedHours, completedAt/completedOn optional, any case or spacing). Quoted
+// fields may contain commas, doubled quotes and line breaks. Dates are ISO dates or date-times, with 'T' or a space.
+public class CsvTaskReader implements TaskRowReader {
+
+    static final int MAX_RECORD_CHARS = 16_384;
+
+    private static final Map<String, String> ALIASES = Map.of(
+            "name", "title", "summary", "title",
+            "notes", "description",
+            "start", "startdate",
+            "due", "deadline", "duedate", "deadline",
+            "hours", "estimatedhours", "estimate", "estimatedhours",
+            "completedon", "completedat", "completiondate", "completedat");
+
+    private final BufferedReader in;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int line = 1;
+    private boolean tooLong;
+
+    public CsvTaskReader(Reader reader) throws IOException {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        in.mark(1);
+        if (in.read() != '\uFEFF') in.reset(); // byte order mark from spreadsheet exports
+        List<String> header = readRecord();
+        if (header == null || tooLong) throw new BadRequestException("CSV import needs a header row");
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            columns.putIfAbsent(ALIASES.getOrDefault(name, name), i);
+        }
+        if (!columns.containsKey("title")) throw new BadRequestException("CSV header has no title column");
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        while (true) {
+            int start = line;
+            List<String> record = readRecord();
+            if (record == null) return null;
+            if (tooLong) return ImportRow.error(start, "row longer than " + MAX_RECORD_CHARS + " characters");
+            if (record.size() == 1 && record.get(0).isBlank()) continue;
+            try {
+                return ImportRow.of(start, toTask(record));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return ImportRow.error(start, "unreadable value: " + e.getMessage());
+            }
+        }
+    }
+
+    private Task toTask(List<String> record) {
+        Task task = new Task();
+        task.setTitle(value(record, "title"));
+        task.setDescription(value(record, "description"));
+        task.setPriority(value(record, "priority"));
+        task.setStatus(value(record, "status"));
+        task.setStartDate(dateTime(value(record, "startdate")));
+        task.setDeadline(dateTime(value(record, "deadline")));
+        task.setCompletedAt(dateTime(value(record, "completedat")));
+        String hours = value(record, "estimatedhours");
+        if (hours != null) task.setEstimatedHours((int) Math.ceil(Double.parseDouble(hours)));
+        return task;
+    }
+
+    private String value(List<String> record, String column) {
+        Integer i = columns.get(column);
+        if (i == null || i >= record.size()) return null;
+        String v = record.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    static LocalDateTime dateTime(String v) {
+        if (v == null) return null;
+        if (v.length() == 10) return LocalDate.parse(v).atStartOfDay();
+        return LocalDateTime.parse(v.replace(' ', 'T'));
+    }
+
+    // Reads one record, or null at end of input. Every character counts towards MAX_RECORD_CHARS,
+    // separators included; past it nothing more is collected and the record is flagged, but it is still
+    // consumed to its end so the next one starts in the right place.
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int length = 0;
+        tooLong = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (c == '\n' && !quoted) {
+                line++;
+                if (!tooLong) fields.add(field.toString());
+                return fields;
+            }
+            if (!tooLong && ++length > MAX_RECORD_CHARS) tooLong = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    int n = in.read();
+                    if (n == '"') {
+                        c = '"';
+                    } else {
+                        quoted = false;
+                        if (n != -1) in.reset();
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                continue;
+            } else if (c == ',') {
+                if (!tooLong) fields.add(field.toString());
+                field.setLength(0);
+                continue;
+            } else if (c == '\r') {
+                continue;
+            }
+            if (!tooLong) field.append((char) c);
+        }
+        if (!any) return null;
+        if (!tooLong) fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,224 @@
+package com.studypal.backend.importer;
+
+import com.studypal.backend.model.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// iCalendar (RFC 5545) VEVENTs and VTODOs as tasks: SUMMARY -> title, DESCRIPTION -> description,
+// DTSTART -> startDate, DUE (todos) or DTEND (events) -> deadline, PRIORITY 1-4/5/6-9 -> HIGH/MEDIUM/LOW,
+// STATUS COMPLETED / IN-PROCESS -> COMPLETED / IN_PROGRESS, COMPLETED (todos) -> completedAt. Events also
+// get their length as estimatedHours.
+// UTC and TZID times are converted to server time, which is how deadlines are stored elsewhere.
+public class IcsTaskReader implements TaskRowReader {
+
+    static final int MAX_LINE_CHARS = 16_384;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final BufferedReader in;
+    private int line;                 // physical lines read so far
+    private boolean physicalTooLong;  // the last physical line was cut
+    private String pending;           // physical line read ahead while unfolding
+    private int pendingLine;
+    private boolean pendingTooLong;
+    private int contentLine;          // first physical line of the last content line returned
+    private boolean tooLong;          // the last content line returned was cut
+
+    public IcsTaskReader(Reader reader) {
+        this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        String content;
+        while ((content = readUnfolded()) != null) {
+            String upper = content.toUpperCase(Locale.ROOT);
+            if (upper.equals("BEGIN:VEVENT") || upper.equals("BEGIN:VTODO")) {
+                return readComponent(upper.substring("BEGIN:".length()), contentLine);
+            }
+        }
+        return null;
+    }
+
+    // Reads the properties of one component up to its END line; nested components (alarms) are skipped
+    private ImportRow readComponent(String kind, int start) throws IOException {
+        Task task = new Task();
+        String error = null;
+        LocalDateTime end = null;
+        boolean cancelled = false;
+        int depth = 0;
+        String content;
+        while ((content = readUnfolded()) != null) {
+            if (tooLong && error == null) error = "line longer than " + MAX_LINE_CHARS + " characters";
+            int colon = valueStart(content);
+            if (colon < 0) continue;
+            String nameAndParams = content.substring(0, colon);
+            String value = content.substring(colon + 1);
+            int semi = nameAndParams.indexOf(';');
+            String name = (semi < 0 ? nameAndParams : nameAndParams.substring(0, semi)).toUpperCase(Locale.ROOT);
+            String params = semi < 0 ? "" : nameAndParams.substring(semi + 1);
+
+            if (name.equals("BEGIN")) {
+                depth++;
+                continue;
+            }
+            if (name.equals("END")) {
+                if (depth-- > 0) continue;
+                if (error != null) return ImportRow.error(start, error);
+                if (cancelled) return ImportRow.error(start, "cancelled " + kind + " skipped");
+                if (kind.equals("VEVENT")) {
+                    if (end == null) end = task.getStartDate();
+                    task.setDeadline(end);
+                    if (task.getStartDate() != null && end != null && end.isAfter(task.getStartDate())) {
+                        long minutes = Duration.between(task.getStartDate(), end).toMinutes();
+                        task.setEstimatedHours((int) Math.min(Integer.MAX_VALUE, (minutes + 59) / 60));
+                    }
+                }
+                return ImportRow.of(start, task);
+            }
+            if (depth > 0 || error != null) continue;
+            try {
+                switch (name) {
+                    case "SUMMARY" -> task.setTitle(text(value));
+                    case "DESCRIPTION" -> task.setDescription(text(value));
+                    case "DTSTART" -> task.setStartDate(dateTime(value, params));
+                    case "DUE" -> task.setDeadline(dateTime(value, params));
+                    case "DTEND" -> end = dateTime(value, params);
+                    case "COMPLETED" -> task.setCompletedAt(dateTime(value, params));
+                    case "PRIORITY" -> task.setPriority(priority(value.trim()));
+                    case "STATUS" -> {
+                        String status = value.trim().toUpperCase(Locale.ROOT);
+                        cancelled = status.equals("CANCELLED");
+                        if (status.equals("COMPLETED")) task.setStatus("COMPLETED");
+                        else if (status.equals("IN-PROCESS")) task.setStatus("IN_PROGRESS");
+                    }
+                    default -> { }
+                }
+            } catch (DateTimeException | NumberFormatException | IndexOutOfBoundsException e) {
+                error = "unreadable " + name + ": " + e.getMessage();
+            }
+        }
+        return ImportRow.error(start, kind + " is missing its END line");
+    }
+
+    // First ':' outside a quoted parameter value
+    private static int valueStart(String content) {
+        boolean quoted = false;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ':' && !quoted) return i;
+        }
+        return -1;
+    }
+
+    private static String text(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char n = value.charAt(++i);
+                out.append(n == 'n' || n == 'N' ? '\n' : n);
+            } else {
+                out.append(c);
+            }
+        }
+        String s = out.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    private static String priority(String value) {
+        int p = Integer.parseInt(value);
+        if (p == 0) return null; // undefined
+        return p <= 4 ? "HIGH" : p == 5 ? "MEDIUM" : "LOW";
+    }
+
+    static LocalDateTime dateTime(String value, String params) {
+        String v = value.trim();
+        if (v.length() == 8 || "DATE".equalsIgnoreCase(param(params, "VALUE"))) {
+            return LocalDate.parse(v.substring(0, 8), DATE).atStartOfDay();
+        }
+        if (v.endsWith("Z")) {
+            return LocalDateTime.parse(v.substring(0, v.length() - 1), DATE_TIME)
+                    .atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        LocalDateTime local = LocalDateTime.parse(v, DATE_TIME);
+        String tzid = param(params, "TZID");
+        if (tzid == null) return local; // floating time
+        try {
+            return local.atZone(ZoneId.of(tzid)).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeException e) {
+            return local; // non-IANA zone names (e.g. Windows ones) are taken as server time
+        }
+    }
+
+    private static String param(String params, String name) {
+        for (String p : params.split(";")) {
+            int eq = p.indexOf('=');
+            if (eq > 0 && p.substring(0, eq).equalsIgnoreCase(name)) {
+                String v = p.substring(eq + 1);
+                return v.startsWith("\"") && v.endsWith("\"") && v.length() > 1 ? v.substring(1, v.length() - 1) : v;
+            }
+        }
+        return null;
+    }
+
+    // One content line with its folded continuation lines (those starting with a space or tab) joined
+    private String readUnfolded() throws IOException {
+        String current;
+        boolean longLine;
+        if (pending != null) {
+            current = pending;
+            contentLine = pendingLine;
+            longLine = pendingTooLong;
+            pending = null;
+        } else {
+            current = readPhysical();
+            contentLine = line;
+            longLine = physicalTooLong;
+        }
+        if (current == null) return null;
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = readPhysical()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) unfolded = new StringBuilder(current);
+            int room = MAX_LINE_CHARS - unfolded.length();
+            if (physicalTooLong || room < next.length() - 1) longLine = true;
+            if (room > 0) unfolded.append(next, 1, Math.min(next.length(), room + 1));
+        }
+        pending = next;
+        pendingLine = line;
+        pendingTooLong = physicalTooLong;
+        tooLong = longLine;
+        return unfolded == null ? current : unfolded.toString();
+    }
+
+    // One physical line without its terminator; characters past MAX_LINE_CHARS are dropped and flagged
+    private String readPhysical() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        boolean any = false;
+        physicalTooLong = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (c == '\n') break;
+            if (c == '\r') continue;
+            if (sb.length() < MAX_LINE_CHARS) sb.append((char) c);
+            else physicalTooLong = true;
+        }
+        if (!any) return null;
+        line++;
+        return sb.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.studypal.backend.importer;
+
+import com.studypal.backend.model.Task;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One parsed record of an import file: a task to validate and insert, or the reason it could not be read
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ImportRow {
+
+    private final int line;     // first line of the record in the file, for error reports
+    private final Task task;    // null when error is set
+    private final String error;
+
+    public static ImportRow of(int line, Task task) {
+        return new ImportRow(line, task, null);
+    }
+
+    public static ImportRow error(int line, String error) {
+        return new ImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,11 @@
+package com.studypal.backend.importer;
+
+import java.io.IOException;
+
+// Pull parser over an import file. Implementations read one record at a time and cap the length of a
+// record, so memory stays bounded whatever the size of the file.
+public interface TaskRowReader {
+
+    // The next record, or null at end of input
+    ImportRow next() throws IOException;
+}
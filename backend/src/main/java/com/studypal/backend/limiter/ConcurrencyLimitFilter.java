@@ -0,0 +1,96 @@
+package com.studypal.backend.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studypal.backend.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Admission control for /api/**. Runs just after the security chain, so CORS and 401s are unaffected and
+// only authenticated work is counted, and wraps the whole handler including serialization.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    private static final List<String> BULK_WRITES = List.of(
+            "/api/tasks/import", "/api/tasks/user/*/rollover", "/api/tasks/bulk/**");
+    private static final List<String> BULK_READS = List.of("/api/tasks/user/*/history");
+
+    private final ConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+    private final int bulkRetryAfterSeconds;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ConcurrencyLimiter limiter, ObjectMapper objectMapper,
+                                  @Value("${limiter.enabled:true}") boolean enabled,
+                                  @Value("${limiter.retry-after-seconds:1}") int retryAfterSeconds,
+                                  @Value("${limiter.bulk-retry-after-seconds:10}") int bulkRetryAfterSeconds) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.bulkRetryAfterSeconds = bulkRetryAfterSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            reject(request, response, priority);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed, priority != RequestPriority.BULK);
+        }
+    }
+
+    static RequestPriority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.startsWith("/api/auth/")) return RequestPriority.CRITICAL;
+        if (method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS")) {
+            boolean export = "true".equalsIgnoreCase(request.getParameter("includeArchived"))
+                    || BULK_READS.stream().anyMatch(p -> PATHS.match(p, path));
+            return export ? RequestPriority.BULK : RequestPriority.CRITICAL;
+        }
+        return BULK_WRITES.stream().anyMatch(p -> PATHS.match(p, path)) ? RequestPriority.BULK : RequestPriority.NORMAL;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RequestPriority priority) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(priority == RequestPriority.BULK ? bulkRetryAfterSeconds : retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is busy, retry later", request.getRequestURI()));
+    }
+}
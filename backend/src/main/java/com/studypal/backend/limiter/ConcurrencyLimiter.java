@@ -0,0 +1,64 @@
+package com.studypal.backend.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Shared in-flight counter checked against the adaptive limit. There is no queue: a request that does not
+// fit its class's share is refused at once, so excess load costs a 503 rather than time on the Tomcat pool.
+@Component
+public class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    @Autowired
+    public ConcurrencyLimiter(MeterRegistry registry,
+                              @Value("${limiter.initial-limit:50}") int initialLimit,
+                              @Value("${limiter.min-limit:8}") int minLimit,
+                              @Value("${limiter.max-limit:200}") int maxLimit,
+                              @Value("${limiter.rtt-tolerance:1.5}") double tolerance,
+                              @Value("${limiter.smoothing:0.2}") double smoothing,
+                              @Value("${limiter.backoff-ratio:0.9}") double backoffRatio) {
+        this.limit = new GradientLimit(initialLimit, minLimit, maxLimit, tolerance, smoothing, backoffRatio);
+        Gauge.builder("limiter.limit", limit, GradientLimit::getLimit).register(registry);
+        Gauge.builder("limiter.inflight", inflight, AtomicInteger::get).register(registry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, registry.counter("limiter.rejected", "priority", priority.name()));
+        }
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = priority.allowed(limit.getLimit());
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    // sample is false for requests whose latency says nothing about server load (uploads, exports)
+    public void release(long rttNanos, boolean dropped, boolean sample) {
+        int before = inflight.getAndDecrement();
+        if (sample || dropped) limit.onSample(rttNanos, before, dropped);
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,57 @@
+package com.studypal.backend.limiter;
+
+// Concurrency limit that follows observed latency, after the gradient algorithm in Netflix's
+// concurrency-limits. A fast and a slow moving average of request latency are kept; while the fast one
+// stays within tolerance of the slow one the limit grows by about sqrt(limit) per sample (additive
+// increase), and when latency rises the limit is scaled down by slow/fast (never below half per sample).
+// A dropped request (timeout, 5xx) cuts the limit by backoffRatio (multiplicative decrease).
+public class GradientLimit {
+
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_ALPHA = 2.0 / (600 + 1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+
+    // guarded by this
+    private double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public synchronized void onSample(long rttNanos, int inflight, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        if (longRtt == 0) {
+            shortRtt = longRtt = rttNanos;
+        } else {
+            shortRtt += SHORT_ALPHA * (rttNanos - shortRtt);
+            longRtt += LONG_ALPHA * (rttNanos - longRtt);
+        }
+        // after a sustained slowdown the slow average trails far behind; pull it down so the limit can recover
+        if (longRtt / shortRtt > 2) longRtt *= 0.95;
+        // too little traffic to say anything about the limit
+        if (inflight < limit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,19 @@
+package com.studypal.backend.limiter;
+
+// Admission classes for the concurrency limiter. Each class may only fill its share of the limit, so
+// when the server is saturated bulk work is shed first, then writes, and reads and auth last.
+public enum RequestPriority {
+    CRITICAL(1.0), // auth and reads
+    NORMAL(0.9),   // single-task writes
+    BULK(0.5);     // import, rollover, bulk complete, history exports
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public int allowed(int limit) {
+        return Math.max(1, (int) (limit * share));
+    }
+}
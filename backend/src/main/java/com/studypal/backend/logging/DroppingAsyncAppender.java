@@ -0,0 +1,149 @@
+package com.studypal.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Async appender that never blocks the caller: a single worker drains a bounded queue into the attached
+// appenders. An event is dropped and counted when offer() refuses it (queue full), or when it is
+// TRACE/DEBUG/INFO and fewer than discardingThreshold slots are left. Logback's AsyncAppender discards
+// a failed offer() without telling the subclass, so the queue is kept here.
+public class DroppingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private int queueSize = 256;
+    private int discardingThreshold = -1; // default: a fifth of the queue
+    private int maxFlushTime = 1000;
+    private boolean includeCallerData;
+    private BlockingQueue<ILoggingEvent> queue;
+    private Thread worker;
+
+    public static long droppedCount() {
+        return DROPPED.get();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) return;
+        if (queueSize < 1) {
+            addError("Invalid queue size [" + queueSize + "]");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        if (discardingThreshold < 0) discardingThreshold = queueSize / 5;
+        worker = new Thread(this::drain, "AsyncAppender-Worker-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    // Lets the worker flush what is queued for up to maxFlushTime before the attached appenders stop
+    @Override
+    public void stop() {
+        if (!isStarted()) return;
+        super.stop();
+        worker.interrupt();
+        try {
+            worker.join(maxFlushTime);
+            if (worker.isAlive()) addWarn("Max flush time reached, " + queue.size() + " queued events lost");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (queue.remainingCapacity() < discardingThreshold && event.getLevel().toInt() <= Level.INFO_INT) {
+            DROPPED.incrementAndGet();
+            return;
+        }
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) event.getCallerData();
+        if (!queue.offer(event)) DROPPED.incrementAndGet();
+    }
+
+    private void drain() {
+        while (isStarted()) {
+            try {
+                appenders.appendLoopOnAppenders(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        List<ILoggingEvent> rest = new ArrayList<>(queue.size());
+        queue.drainTo(rest);
+        rest.forEach(appenders::appendLoopOnAppenders);
+        appenders.detachAndStopAllAppenders();
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
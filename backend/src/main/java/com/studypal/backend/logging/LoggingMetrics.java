@@ -0,0 +1,19 @@
+package com.studypal.backend.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Exposes the logging pipeline's loss counters; both should stay near zero outside incidents
+@Component
+public class LoggingMetrics {
+
+    public LoggingMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("logging.async.dropped", this, m -> DroppingAsyncAppender.droppedCount())
+                .description("Log events dropped because the async queue was full")
+                .register(registry);
+        FunctionCounter.builder("logging.ratelimited.suppressed", this, m -> RateLimitingTurboFilter.suppressedCount())
+                .description("Hot-path log events suppressed by the per-category rate limit")
+                .register(registry);
+    }
+}
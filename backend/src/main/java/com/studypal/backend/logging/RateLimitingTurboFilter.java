@@ -0,0 +1,77 @@
+package com.studypal.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caps INFO-and-below output per category (logger name prefix) to maxPerSecond events.
+// WARN/ERROR always pass; events over budget are denied before any formatting happens.
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final AtomicLong SUPPRESSED = new AtomicLong();
+
+    private final List<String> categories = new ArrayList<>();
+    private Window[] windows = new Window[0];
+    private int maxPerSecond = 50;
+
+    public static long suppressedCount() {
+        return SUPPRESSED.get();
+    }
+
+    public void addCategory(String category) {
+        categories.add(category.trim());
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        windows = new Window[categories.size()];
+        for (int i = 0; i < windows.length; i++) windows[i] = new Window();
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() guards arrive without a format; only actual log calls spend budget
+        if (format == null || level.levelInt >= Level.WARN_INT) return FilterReply.NEUTRAL;
+        if (level.levelInt < logger.getEffectiveLevel().levelInt) return FilterReply.NEUTRAL;
+
+        String name = logger.getName();
+        for (int i = 0; i < windows.length; i++) {
+            if (name.startsWith(categories.get(i))) {
+                if (windows[i].tryAcquire(System.currentTimeMillis() / 1000, maxPerSecond)) return FilterReply.NEUTRAL;
+                SUPPRESSED.incrementAndGet();
+                return FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    // Fixed one-second window; a lost race at the boundary only lets a few extra events through
+    private static final class Window {
+        private volatile long second = -1;
+        private final AtomicInteger used = new AtomicInteger();
+
+        boolean tryAcquire(long now, int limit) {
+            if (second != now) {
+                synchronized (this) {
+                    if (second != now) {
+                        used.set(0);
+                        second = now;
+                    }
+                }
+            }
+            return used.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.studypal.backend.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Document(collection = "diary_entries")
+@CompoundIndex(name = "user_date", def = "{'userId': 1, 'date': -1}", unique = true)
+public class DiaryEntry {
+
+    @Id
+    private String id; // userId:date, one entry per user per day
+
+    private String userId;
+
+    private LocalDate date;
+
+    @Size(max = 10000, message = "content must be at most 10000 characters")
+    private String content;
+
+    // Structured ratings, 1 (poor) to 5 (great); any may be omitted
+    @Min(value = 1, message = "productivity must be between 1 and 5")
+    @Max(value = 5, message = "productivity must be between 1 and 5")
+    private Integer productivity;
+
+    @Min(value = 1, message = "focus must be between 1 and 5")
+    @Max(value = 5, message = "focus must be between 1 and 5")
+    private Integer focus;
+
+    @Min(value = 1, message = "mood must be between 1 and 5")
+    @Max(value = 5, message = "mood must be between 1 and 5")
+    private Integer mood;
+
+    @Min(value = 1, message = "energy must be between 1 and 5")
+    @Max(value = 5, message = "energy must be between 1 and 5")
+    private Integer energy;
+
+    private long tasksCompleted; // tasks first completed that day, counted on write and raised by later completions
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Mean of the ratings given, or null when the entry is unrated
+    public Double overallRating() {
+        int n = 0;
+        int sum = 0;
+        for (Integer r : new Integer[]{productivity, focus, mood, energy}) {
+            if (r != null) { sum += r; n++; }
+        }
+        return n == 0 ? null : (double) sum / n;
+    }
+}
@@ -0,0 +1,64 @@
+package com.studypal.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Running totals over a user's diary, updated on every entry write so reads touch one document
+@Data
+@Document(collection = "diary_summaries")
+public class DiarySummary {
+
+    @Id
+    private String userId;
+
+    private long totalEntries;
+
+    private int currentStreak; // consecutive days ending at lastEntryDate
+    private int longestStreak;
+    private LocalDate lastEntryDate;
+
+    // Sums over rated entries: x = overall rating, y = tasks completed
+    private long ratedEntries;
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumYY;
+    private double sumXY;
+
+    private Map<String, Bucket> weekly = new HashMap<>();  // keyed by ISO week, e.g. 2025-W10
+    private Map<String, Bucket> monthly = new HashMap<>(); // keyed by month, e.g. 2025-03
+
+    @Version
+    private Long version;
+
+    public Double getAverageRating() {
+        return ratedEntries == 0 ? null : sumX / ratedEntries;
+    }
+
+    // Pearson correlation between daily rating and completed tasks
+    public Double getRatingTaskCorrelation() {
+        double n = ratedEntries;
+        double varX = n * sumXX - sumX * sumX;
+        double varY = n * sumYY - sumY * sumY;
+        if (n < 2 || varX <= 0 || varY <= 0) return null;
+        return (n * sumXY - sumX * sumY) / Math.sqrt(varX * varY);
+    }
+
+    @Data
+    public static class Bucket {
+        private long entries;
+        private long ratedEntries;
+        private double ratingSum;
+        private long tasksCompleted;
+
+        public Double getAverageRating() {
+            return ratedEntries == 0 ? null : ratingSum / ratedEntries;
+        }
+    }
+}
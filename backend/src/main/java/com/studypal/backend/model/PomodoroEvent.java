@@ -0,0 +1,42 @@
+package com.studypal.backend.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.LocalDateTime;
+
+// Raw focus-session event, stored append-only in a time-series collection
+@Data
+@TimeSeries(collection = "pomodoro_events", timeField = "timestamp", metaField = "userId", granularity = Granularity.MINUTES)
+public class PomodoroEvent {
+
+    public static final String START = "START";
+    public static final String STOP = "STOP";
+    public static final String INTERRUPT = "INTERRUPT";
+
+    @Id
+    private String id;
+
+    private String userId; // set from the enclosing batch
+
+    @NotBlank(message = "eventId is required")
+    private String eventId; // client-generated and unique per event, so a retried batch is ingested once
+
+    private String taskId;
+
+    private String sessionId; // client-generated, groups the events of one focus session
+
+    @NotBlank(message = "type is required")
+    private String type; // START, STOP, INTERRUPT
+
+    @NotNull(message = "timestamp is required")
+    private LocalDateTime timestamp;
+
+    @Min(value = 0, message = "focusSeconds must be non-negative")
+    private long focusSeconds; // focused time since START, reported on STOP/INTERRUPT
+}
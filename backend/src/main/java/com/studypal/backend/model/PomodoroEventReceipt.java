@@ -0,0 +1,27 @@
+package com.studypal.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Claim record for one client event id: a retried upload finds its ids taken and is not counted twice.
+// pomodoro_events is a time-series collection, which cannot carry the unique index this needs.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pomodoro_event_receipts")
+public class PomodoroEventReceipt {
+
+    @Id
+    private String id; // userId:eventId
+
+    private String userId;
+
+    @Indexed(expireAfter = "7d")
+    private Instant receivedAt;
+}
@@ -0,0 +1,44 @@
+package com.studypal.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+// Pre-aggregated focus totals per user per day or week, maintained with $inc on ingest
+@Data
+@Document(collection = "pomodoro_rollups")
+@CompoundIndex(name = "user_period_start", def = "{'userId': 1, 'period': 1, 'periodStart': 1}", unique = true)
+public class PomodoroRollup {
+
+    public static final String DAILY = "DAILY";
+    public static final String WEEKLY = "WEEKLY";
+
+    @Id
+    private String id; // userId:period:periodStart
+
+    private String userId;
+
+    private String period; // DAILY or WEEKLY
+
+    private LocalDate periodStart;
+
+    private long focusSeconds;
+
+    private long sessions;
+
+    private long interruptions;
+
+    private Map<String, TaskTotals> tasks = new HashMap<>(); // keyed by taskId
+
+    @Data
+    public static class TaskTotals {
+        private long focusSeconds;
+        private long sessions;
+        private long interruptions;
+    }
+}
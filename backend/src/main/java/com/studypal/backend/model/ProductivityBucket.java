@@ -0,0 +1,40 @@
+package com.studypal.backend.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+// Completed-task totals per user per day, maintained with $inc when a task first reaches COMPLETED.
+// Weekly figures are summed from the daily buckets at read time.
+@Data
+@Document(collection = "productivity_daily")
+@CompoundIndex(name = "user_date", def = "{'userId': 1, 'date': 1}", unique = true)
+public class ProductivityBucket {
+
+    public static final String DAILY = "DAILY";
+    public static final String WEEKLY = "WEEKLY";
+
+    @Id
+    private String id; // userId:date
+
+    private String userId;
+
+    private LocalDate date; // the day, or the Monday of a weekly bucket
+
+    private long completed;
+
+    private long onTime; // completed at or before the deadline
+
+    private long late;
+
+    private long noDeadline;
+
+    private long estimatedHours; // sum of estimatedHours of the completed tasks
+
+    public static String idOf(String userId, LocalDate date) {
+        return userId + ":" + date;
+    }
+}
@@ -5,13 +5,15 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "tasks")
-public class Task {
+public class Task implements Serializable {
 
     @Id
     private String id;
@@ -39,6 +41,12 @@ public class Task {
     @NotBlank(message = "status is required")
     private String status; // e.g., TO_DO, IN_PROGRESS, COMPLETED
 
+    private String rank; // fractional position within the status column, see RankKeys
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime completedAt; // first transition to COMPLETED; kept if re-opened, so analytics count a task once
+
+    @Version
+    private Long version; // optimistic lock, bumped on every write
 }
\ No newline at end of file
@@ -3,13 +3,15 @@ package com.studypal.backend.model;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Locale;
+
 @Document(collection = "users") // Maps this class to the "users" collection in MongoDB
 public class User {
 
     @Id
     private String id; // Unique identifier for the user
     private String name;
-    private String email;
+    private String email; // unique, case-insensitively (see config.UserEmailIndex)
     private String password;
     private String profilePicture; // Base64 encoded image or image URL
     private boolean profileCompleted = false; // Track if user has completed profile setup
@@ -23,6 +25,11 @@ public class User {
         this.password = password;
     }
 
+    // Stored form of an email: trimmed and lower-cased
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -0,0 +1,21 @@
+package com.studypal.backend.payload;
+
+import com.studypal.backend.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class DashboardSummary implements Serializable {
+    private long total;
+    private Map<String, Long> countsByStatus;
+    private long overdueCount;
+    private List<Task> overdue;   // oldest deadline first, top N
+    private List<Task> today;     // deadline falls on the current day
+    private List<Task> upcoming;  // next N open deadlines
+    private double avgEstimatedHours;
+}
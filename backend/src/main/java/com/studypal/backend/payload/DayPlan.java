@@ -0,0 +1,31 @@
+package com.studypal.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DayPlan implements Serializable {
+    private String userId;
+    private LocalDate date;
+    private int availableHours;
+    private int scheduledHours;
+    private List<Item> items;
+    private int deferredCount; // open tasks that did not fit into the day
+
+    @Data
+    @AllArgsConstructor
+    public static class Item implements Serializable {
+        private String taskId;
+        private String title;
+        private String priority;
+        private LocalDateTime deadline;
+        private int hours;
+        private int startOffsetHours; // hours after the start of the working day
+    }
+}
@@ -0,0 +1,29 @@
+package com.studypal.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of POST /api/tasks/import; errors lists the first rejected rows, rejected counts all of them
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    private String format;
+    private long rows;
+    private long imported;
+    private long rejected;
+    private int batches;
+    private boolean truncated; // stopped at tasks.import.max-rows
+    private long millis;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int line;
+        private String message;
+    }
+}
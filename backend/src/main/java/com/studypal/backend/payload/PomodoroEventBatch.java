@@ -0,0 +1,21 @@
+package com.studypal.backend.payload;
+
+import com.studypal.backend.model.PomodoroEvent;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+// Events buffered by the client and uploaded together
+@Data
+public class PomodoroEventBatch {
+    @NotBlank(message = "userId is required")
+    private String userId;
+
+    @NotEmpty(message = "events must not be empty")
+    @Size(max = 1000, message = "at most 1000 events per batch")
+    private List<@Valid PomodoroEvent> events;
+}
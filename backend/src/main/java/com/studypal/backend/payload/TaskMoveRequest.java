@@ -0,0 +1,17 @@
+package com.studypal.backend.payload;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+// Drop position in a Kanban column: the tasks directly above and below, either may be null at the ends
+@Data
+public class TaskMoveRequest {
+    @NotBlank(message = "status is required")
+    private String status;
+
+    private String prevId;
+
+    private String nextId;
+
+    private Long version; // expected version; when set, a stale write fails with 409
+}
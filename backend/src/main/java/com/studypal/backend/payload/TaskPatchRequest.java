@@ -0,0 +1,30 @@
+package com.studypal.backend.payload;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Partial task update: only non-null fields are written
+@Data
+public class TaskPatchRequest {
+    @Size(min = 1, max = 200, message = "title must be between 1 and 200 characters")
+    private String title;
+
+    @Size(max = 2000, message = "description must be at most 2000 characters")
+    private String description;
+
+    private String priority;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime deadline;
+
+    @Min(value = 0, message = "estimatedHours must be non-negative")
+    private Integer estimatedHours;
+
+    private String status;
+
+    private Long version; // expected version; when set, a stale write fails with 409
+}
@@ -0,0 +1,12 @@
+package com.studypal.backend.payload;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TaskStatusRequest {
+    @NotBlank(message = "status is required")
+    private String status;
+
+    private Long version; // expected version; when set, a stale write fails with 409
+}
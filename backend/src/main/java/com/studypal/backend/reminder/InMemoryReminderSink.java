@@ -0,0 +1,24 @@
+package com.studypal.backend.reminder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the most recent reminders in memory, for local runs and tests
+public class InMemoryReminderSink implements ReminderSink {
+
+    private static final int CAPACITY = 1000;
+
+    private final Deque<Reminder> sent = new ArrayDeque<>();
+
+    @Override
+    public synchronized void send(Reminder reminder) {
+        if (sent.size() == CAPACITY) sent.removeFirst();
+        sent.addLast(reminder);
+    }
+
+    public synchronized List<Reminder> sent() {
+        return new ArrayList<>(sent);
+    }
+}
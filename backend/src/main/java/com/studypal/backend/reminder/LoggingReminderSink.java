@@ -0,0 +1,14 @@
+package com.studypal.backend.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Stand-in until a real notification channel exists
+@Slf4j
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public void send(Reminder reminder) {
+        log.info("Reminder for user {}: task {} '{}' is due at {}",
+                reminder.getUserId(), reminder.getTaskId(), reminder.getTitle(), reminder.getDeadline());
+    }
+}
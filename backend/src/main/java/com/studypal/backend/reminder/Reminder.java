@@ -0,0 +1,30 @@
+package com.studypal.backend.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// A task whose deadline is approaching; remindAtMillis = deadline - lead time
+@Getter
+@ToString
+@AllArgsConstructor
+public class Reminder {
+    private final String taskId;
+    private final String userId;
+    private final String title;
+    private final LocalDateTime deadline;
+    private final long remindAtMillis;
+
+    // One reminder per task per deadline; moving the deadline earns a fresh reminder
+    public String key() {
+        return key(taskId, deadline);
+    }
+
+    // Mongo keeps milliseconds, so an in-memory deadline and its stored copy must build the same key
+    public static String key(String taskId, LocalDateTime deadline) {
+        return taskId + ":" + deadline.truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -0,0 +1,8 @@
+package com.studypal.backend.reminder;
+
+// Delivery channel for due reminders (email, push, websocket...). Called from the reminder ticker thread
+// after the reminder has been claimed, so each reminder is handed over once across all instances.
+public interface ReminderSink {
+
+    void send(Reminder reminder);
+}
@@ -0,0 +1,27 @@
+package com.studypal.backend.reminder;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+// Claim record: inserting it is what entitles an instance to send the reminder, so restarts and
+// concurrent instances never send one twice. Expires once the deadline is long past.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "task_reminders")
+public class SentReminder {
+
+    @Id
+    private String id; // Reminder.key(): taskId:deadline
+
+    private String userId;
+
+    @Indexed(expireAfter = "30d")
+    private Instant sentAt;
+}
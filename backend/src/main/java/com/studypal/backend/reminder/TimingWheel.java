@@ -0,0 +1,137 @@
+package com.studypal.backend.reminder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: LEVELS wheels of SLOTS buckets, each level's slot spanning SLOTS times the one below.
+// schedule/cancel are O(1) (keyed doubly linked bucket lists); advance does O(1) work per tick plus one
+// re-placement per entry per level as far-out entries cascade down towards level 0. Not thread-safe.
+public class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final Node<T>[][] wheels;
+    private final Map<String, Node<T>> byKey = new HashMap<>();
+    private long currentTick; // next tick to be processed
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Node[LEVELS][SLOTS];
+        for (Node<T>[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) wheel[i] = Node.sentinel();
+        }
+    }
+
+    // Entries due further out than this must be scheduled later (ticks * 64^4, ~194 days at 1 s)
+    public long horizonMillis() {
+        return tickMillis * (1L << (BITS * LEVELS));
+    }
+
+    // Replaces any entry under the same key; entries already due fire on the next advance
+    public boolean schedule(String key, long dueMillis, T value) {
+        cancel(key);
+        long dueTick = Math.max(dueMillis / tickMillis, currentTick);
+        if (dueTick - currentTick >= 1L << (BITS * LEVELS)) return false;
+        Node<T> node = new Node<>(key, dueTick, value);
+        byKey.put(key, node);
+        place(node);
+        return true;
+    }
+
+    public boolean cancel(String key) {
+        Node<T> node = byKey.remove(key);
+        if (node == null) return false;
+        node.unlink();
+        return true;
+    }
+
+    public boolean contains(String key) {
+        return byKey.containsKey(key);
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    // Processes every tick up to and including nowMillis, handing due entries to the consumer
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long nowTick = nowMillis / tickMillis;
+        while (currentTick <= nowTick) {
+            long tick = currentTick;
+            // cascade from the top so entries moved out of a higher level can cascade again below
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((tick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) ((tick >>> (BITS * level)) & MASK)]);
+                }
+            }
+            Node<T> bucket = wheels[0][(int) (tick & MASK)];
+            while (bucket.next != bucket) {
+                Node<T> node = bucket.next;
+                node.unlink();
+                byKey.remove(node.key);
+                expired.accept(node.value);
+            }
+            currentTick++;
+        }
+    }
+
+    // Level is chosen by distance from now; an entry is then visited exactly when its slot comes round,
+    // because it is always less than one full turn of its level away
+    private void place(Node<T> node) {
+        long delta = node.dueTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) level++;
+        int slot = (int) ((node.dueTick >>> (BITS * level)) & MASK);
+        node.linkBefore(wheels[level][slot]);
+    }
+
+    private void cascade(Node<T> bucket) {
+        Node<T> node = bucket.next;
+        bucket.next = bucket;
+        bucket.prev = bucket;
+        while (node != bucket) {
+            Node<T> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private static final class Node<T> {
+        final String key;
+        final long dueTick;
+        final T value;
+        Node<T> prev = this;
+        Node<T> next = this;
+
+        Node(String key, long dueTick, T value) {
+            this.key = key;
+            this.dueTick = dueTick;
+            this.value = value;
+        }
+
+        static <T> Node<T> sentinel() {
+            return new Node<>(null, 0, null);
+        }
+
+        void linkBefore(Node<T> sentinel) {
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.studypal.backend.repository;
+
+import com.studypal.backend.model.DiaryEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DiaryEntryRepository extends MongoRepository<DiaryEntry, String> {
+    // keyset page over the (userId, date) index, newest first
+    List<DiaryEntry> findByUserIdAndDateLessThanOrderByDateDesc(String userId, LocalDate before, Pageable pageable);
+}
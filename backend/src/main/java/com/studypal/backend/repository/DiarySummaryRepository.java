@@ -0,0 +1,7 @@
+package com.studypal.backend.repository;
+
+import com.studypal.backend.model.DiarySummary;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface DiarySummaryRepository extends MongoRepository<DiarySummary, String> {
+}
@@ -0,0 +1,14 @@
+package com.studypal.backend.repository;
+
+import com.studypal.backend.model.PomodoroRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PomodoroRollupRepository extends MongoRepository<PomodoroRollup, String> {
+    // inclusive range scan over the (userId, period, periodStart) index
+    @Query(value = "{ 'userId': ?0, 'period': ?1, 'periodStart': { $gte: ?2, $lte: ?3 } }", sort = "{ 'periodStart': 1 }")
+    List<PomodoroRollup> findRange(String userId, String period, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,14 @@
+package com.studypal.backend.repository;
+
+import com.studypal.backend.model.ProductivityBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductivityBucketRepository extends MongoRepository<ProductivityBucket, String> {
+    // inclusive range scan over the (userId, date) index
+    @Query(value = "{ 'userId': ?0, 'date': { $gte: ?1, $lte: ?2 } }", sort = "{ 'date': 1 }")
+    List<ProductivityBucket> findRange(String userId, LocalDate from, LocalDate to);
+}
@@ -11,4 +11,6 @@ public interface TaskRepository extends MongoRepository<Task, String> {
     List<Task> findByUserId(String userId);
     List<Task> findByUserIdAndStatus(String userId, String status);
     Page<Task> findByUserId(String userId, Pageable pageable);
+    List<Task> findByUserIdAndStatusNot(String userId, String status);
+    List<Task> findByUserIdAndStatusOrderByRankAscIdAsc(String userId, String status);
 }
\ No newline at end of file
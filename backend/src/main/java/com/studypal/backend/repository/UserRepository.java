@@ -2,12 +2,15 @@ package com.studypal.backend.repository;
 
 import com.studypal.backend.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
-    User findByEmail(String email); // Custom query method to find a user by email
+    // Case-insensitive, using the collation of the unique email index so the lookup is served by it
+    @Query(value = "{ 'email' : ?0 }", collation = "{ 'locale' : 'en', 'strength' : 2 }")
+    User findByEmail(String email);
 
 }
@@ -1,10 +1,12 @@
 package com.studypal.backend.service;
 
+import com.studypal.backend.exception.UserAlreadyExistsException;
 import com.studypal.backend.model.User;
 import com.studypal.backend.payload.LoginRequest;
 import com.studypal.backend.payload.LoginResponse;
 import com.studypal.backend.repository.UserRepository;
 import com.studypal.backend.security.JwtUtil;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -30,7 +32,7 @@ public class AuthService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email);
+        User user = userRepository.findByEmail(User.normalizeEmail(email));
         if (user == null) {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
@@ -42,13 +44,18 @@ public class AuthService implements UserDetailsService {
         );
     }
 
+    // A single insert: the unique email index, built before the server accepts requests (UserEmailIndex),
+    // decides between concurrent registrations
     public ResponseEntity<?> register(User user) {
-        if (userRepository.findByEmail(user.getEmail()) != null) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("User already exists with email: " + user.getEmail());
-        }
-
+        user.setId(null);
+        user.setEmail(User.normalizeEmail(user.getEmail()));
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new UserAlreadyExistsException("User already exists with email: " + user.getEmail());
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(new java.util.HashMap<String, Object>() {{
             put("message", "User registered successfully");
             put("userId", savedUser.getId());
@@ -56,7 +63,7 @@ public class AuthService implements UserDetailsService {
     }
 
     public ResponseEntity<LoginResponse> login(LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.getEmail());
+        User user = userRepository.findByEmail(User.normalizeEmail(loginRequest.getEmail()));
         if (user == null || !passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
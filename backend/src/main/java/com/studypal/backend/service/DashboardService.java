@@ -0,0 +1,107 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.payload.DashboardSummary;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+@Service
+public class DashboardService {
+
+    static final String CACHE = "dashboard";
+
+    private final MongoTemplate mongoTemplate;
+    private final int topN;
+    private final int todayLimit;
+
+    @Autowired
+    public DashboardService(MongoTemplate mongoTemplate, @Value("${dashboard.top-n:5}") int topN,
+                            @Value("${dashboard.today-limit:50}") int todayLimit) {
+        this.mongoTemplate = mongoTemplate;
+        this.topN = topN;
+        this.todayLimit = todayLimit;
+    }
+
+    // All dashboard widgets from a single $facet aggregation over the user's tasks; every task list is
+    // capped so the one result document stays small however many tasks the user has
+    @Cacheable(value = CACHE, key = "#userId")
+    public DashboardSummary getDashboard(String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        // status is compared case-insensitively, as in TaskService
+        Criteria open = Criteria.where("status").not().regex("^COMPLETED$", "i");
+
+        TypedAggregation<Task> aggregation = Aggregation.newAggregation(Task.class,
+                match(Criteria.where("userId").is(userId)),
+                facet(group("status").count().as("count")).as("byStatus")
+                        .and(group().count().as("total").avg("estimatedHours").as("avgEstimatedHours")).as("totals")
+                        .and(match(new Criteria().andOperator(open, Criteria.where("deadline").lt(now))), count().as("count")).as("overdueCount")
+                        .and(match(new Criteria().andOperator(open, Criteria.where("deadline").lt(now))),
+                                sort(Sort.Direction.ASC, "deadline"), limit(topN)).as("overdue")
+                        .and(match(Criteria.where("deadline").gte(startOfDay).lt(startOfDay.plusDays(1))),
+                                sort(Sort.Direction.ASC, "deadline"), limit(todayLimit)).as("today")
+                        .and(match(new Criteria().andOperator(open, Criteria.where("deadline").gte(now))),
+                                sort(Sort.Direction.ASC, "deadline"), limit(topN)).as("upcoming"));
+
+        Document result = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (result == null) result = new Document();
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Document d : result.getList("byStatus", Document.class, List.of())) {
+            byStatus.put(String.valueOf(d.get("_id")), number(d, "count").longValue());
+        }
+        Document totals = first(result, "totals");
+        Document overdueCount = first(result, "overdueCount");
+
+        return new DashboardSummary(
+                number(totals, "total").longValue(),
+                byStatus,
+                number(overdueCount, "count").longValue(),
+                tasks(result, "overdue"),
+                tasks(result, "today"),
+                tasks(result, "upcoming"),
+                number(totals, "avgEstimatedHours").doubleValue());
+    }
+
+    @EventListener
+    @CacheEvict(value = CACHE, key = "#event.userId")
+    public void onTaskChanged(TaskChangedEvent event) {
+        // eviction handled by the annotation
+    }
+
+    private static Document first(Document result, String facet) {
+        List<Document> list = result.getList(facet, Document.class, List.of());
+        return list.isEmpty() ? new Document() : list.get(0);
+    }
+
+    private static Number number(Document d, String key) {
+        Number n = d.get(key, Number.class);
+        return n == null ? 0 : n;
+    }
+
+    private List<Task> tasks(Document result, String facet) {
+        return result.getList(facet, Document.class, List.of()).stream()
+                .map(d -> mongoTemplate.getConverter().read(Task.class, d))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,150 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.model.Task;
+import com.studypal.backend.payload.DayPlan;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Pure scheduling logic behind PlanningService: no I/O, safe to call from any thread
+public final class DayPlanner {
+
+    // Upper bound on the candidates considered by the knapsack refinement
+    static final int KNAPSACK_POOL = 256;
+
+    // Weight per urgency class: no deadline/far, within a week, within two days, due today or overdue
+    private static final int[] URGENCY_WEIGHT = {0, 4, 8, 16};
+
+    private DayPlanner() {}
+
+    public static DayPlan plan(String userId, LocalDate date, int availableHours, List<Task> openTasks, boolean optimize) {
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+
+        // Pre-compute sort keys once so the heap comparator does no date math
+        List<Candidate> candidates = new ArrayList<>(openTasks.size());
+        for (Task t : openTasks) {
+            if (t.getStartDate() != null && !t.getStartDate().isBefore(dayEnd)) continue; // not startable yet
+            candidates.add(new Candidate(t, urgency(t.getDeadline(), dayEnd), priorityValue(t.getPriority()), hoursOf(t)));
+        }
+
+        // Heapify is O(n); we only pay O(log n) for the tasks we actually pull
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Math.max(1, candidates.size()), Candidate.ORDER);
+        queue.addAll(candidates);
+
+        List<Candidate> chosen = new ArrayList<>();
+        List<Candidate> pool = new ArrayList<>();
+        int remaining = availableHours;
+        while (!queue.isEmpty() && (remaining > 0 || (optimize && pool.size() < KNAPSACK_POOL))) {
+            Candidate c = queue.poll();
+            if (optimize && pool.size() < KNAPSACK_POOL) pool.add(c);
+            if (c.hours <= remaining) {
+                chosen.add(c);
+                remaining -= c.hours;
+            }
+        }
+
+        if (optimize && !pool.isEmpty()) {
+            List<Candidate> refined = knapsack(pool, availableHours);
+            if (value(refined) > value(chosen)) chosen = refined;
+        }
+
+        chosen.sort(Candidate.ORDER);
+        List<DayPlan.Item> items = new ArrayList<>(chosen.size());
+        int offset = 0;
+        for (Candidate c : chosen) {
+            Task t = c.task;
+            items.add(new DayPlan.Item(t.getId(), t.getTitle(), t.getPriority(), t.getDeadline(), c.hours, offset));
+            offset += c.hours;
+        }
+        return new DayPlan(userId, date, availableHours, offset, items, candidates.size() - items.size());
+    }
+
+    // 0/1 knapsack over the best-ranked candidates, maximising weighted hours within capacity
+    static List<Candidate> knapsack(List<Candidate> pool, int capacity) {
+        int n = pool.size();
+        long[] best = new long[capacity + 1];
+        boolean[][] take = new boolean[n][capacity + 1];
+        for (int i = 0; i < n; i++) {
+            Candidate c = pool.get(i);
+            long v = c.value();
+            for (int cap = capacity; cap >= c.hours; cap--) {
+                long with = best[cap - c.hours] + v;
+                if (with > best[cap]) {
+                    best[cap] = with;
+                    take[i][cap] = true;
+                }
+            }
+        }
+        List<Candidate> result = new ArrayList<>();
+        int cap = capacity;
+        for (int i = n - 1; i >= 0 && cap > 0; i--) {
+            if (take[i][cap]) {
+                result.add(pool.get(i));
+                cap -= pool.get(i).hours;
+            }
+        }
+        return result;
+    }
+
+    private static long value(List<Candidate> candidates) {
+        long v = 0;
+        for (Candidate c : candidates) v += c.value();
+        return v;
+    }
+
+    private static int urgency(LocalDateTime deadline, LocalDateTime dayEnd) {
+        if (deadline == null) return 0;
+        if (!deadline.isAfter(dayEnd)) return 3;
+        if (!deadline.isAfter(dayEnd.plusDays(2))) return 2;
+        if (!deadline.isAfter(dayEnd.plusDays(7))) return 1;
+        return 0;
+    }
+
+    private static int priorityValue(String p) {
+        if (p == null) return 0;
+        switch (p.toUpperCase()) {
+            case "HIGH": return 3;
+            case "MEDIUM": return 2;
+            case "LOW": return 1;
+            default: return 0;
+        }
+    }
+
+    // Tasks without an estimate still take a slot
+    private static int hoursOf(Task t) {
+        return Math.max(1, t.getEstimatedHours());
+    }
+
+    static final class Candidate {
+        // Most urgent first, then priority, then earliest deadline, then shortest
+        static final Comparator<Candidate> ORDER = Comparator
+                .comparingInt((Candidate c) -> -c.urgency)
+                .thenComparingInt(c -> -c.priority)
+                .thenComparingLong(c -> c.deadlineKey)
+                .thenComparingInt(c -> c.hours);
+
+        final Task task;
+        final int urgency;
+        final int priority;
+        final int hours;
+        final long deadlineKey;
+
+        Candidate(Task task, int urgency, int priority, int hours) {
+            this.task = task;
+            this.urgency = urgency;
+            this.priority = priority;
+            this.hours = hours;
+            this.deadlineKey = task.getDeadline() == null ? Long.MAX_VALUE
+                    : task.getDeadline().toEpochSecond(ZoneOffset.UTC);
+        }
+
+        long value() {
+            return (long) (URGENCY_WEIGHT[urgency] + priority + 1) * hours;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.reminder.Reminder;
+import com.studypal.backend.reminder.ReminderSink;
+import com.studypal.backend.reminder.SentReminder;
+import com.studypal.backend.reminder.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Sends a reminder lead-minutes before each open task's deadline.
+// Deadlines are pulled from the deadline index one window ahead into a timing wheel, task writes on this
+// instance re-schedule or cancel in O(1), and every due reminder is re-checked against Mongo and claimed in
+// task_reminders before it is sent, which keeps restarts and other instances from sending it twice.
+// The wheel ticks on its own thread so a slow window load on Spring's scheduler does not delay due reminders.
+@Service
+@Slf4j
+public class DeadlineReminderService {
+
+    private static final long TICK_MILLIS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ReminderSink sink;
+    private final boolean enabled;
+    private final long leadMillis;
+    private final long windowMillis;
+    private final long catchUpMillis;
+
+    // guarded by this
+    private final TimingWheel<Reminder> wheel = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    private final Map<String, String> keyByTask = new HashMap<>();
+    private long loadedUntil; // reminders due before this are in the wheel (0 until the first load)
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "reminder-wheel");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public DeadlineReminderService(MongoTemplate mongoTemplate, ReminderSink sink,
+                                   @Value("${reminders.enabled:true}") boolean enabled,
+                                   @Value("${reminders.lead-minutes:60}") long leadMinutes,
+                                   @Value("${reminders.window-minutes:30}") long windowMinutes,
+                                   @Value("${reminders.catch-up-minutes:60}") long catchUpMinutes) {
+        this.mongoTemplate = mongoTemplate;
+        this.sink = sink;
+        this.enabled = enabled;
+        this.leadMillis = TimeUnit.MINUTES.toMillis(leadMinutes);
+        this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        this.catchUpMillis = TimeUnit.MINUTES.toMillis(catchUpMinutes);
+    }
+
+    // Extends the loaded horizon to now + window. The first run after a start also reaches back
+    // catch-up-minutes, so reminders that fell due while no instance was running still go out.
+    @Scheduled(initialDelay = 5_000, fixedDelayString = "${reminders.load-interval-ms:60000}")
+    public void loadWindow() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        long until = now + windowMillis;
+        long from;
+        boolean first;
+        synchronized (this) {
+            first = loadedUntil == 0;
+            from = first ? now - catchUpMillis : loadedUntil;
+            if (until <= from) return;
+            // publish the new horizon first so task writes made during the load schedule themselves
+            loadedUntil = until;
+        }
+
+        Query query = Query.query(Criteria.where("deadline").gte(toDateTime(from + leadMillis)).lt(toDateTime(until + leadMillis))
+                        .and("status").ne("COMPLETED"))
+                .with(Sort.by("deadline"));
+        query.fields().include("userId", "title", "deadline");
+        int loaded = 0;
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            for (Task task : (Iterable<Task>) tasks::iterator) {
+                Reminder reminder = toReminder(task);
+                synchronized (this) {
+                    if (!wheel.contains(reminder.key())) {
+                        wheel.schedule(reminder.key(), reminder.getRemindAtMillis(), reminder);
+                        keyByTask.put(reminder.getTaskId(), reminder.key());
+                        loaded++;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                // retry the same window next run
+                if (loadedUntil == until) loadedUntil = first ? 0 : from;
+            }
+            log.warn("Loading reminders failed: {}", e.getMessage());
+            return;
+        }
+        if (loaded > 0) log.debug("Loaded {} reminders due before {}", loaded, Instant.ofEpochMilli(until));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                // an exception would cancel the schedule
+                log.warn("Reminder tick failed: {}", e.getMessage());
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    public void tick() {
+        if (!enabled) return;
+        List<Reminder> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+            for (Reminder reminder : due) keyByTask.remove(reminder.getTaskId(), reminder.key());
+        }
+        if (!due.isEmpty()) dispatch(due);
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!enabled) return;
+        if (event.getTaskId() == null) {
+            // bulk updates are caught by the check at send time; bulk creations (imports) need scheduling
+            if (event.getType() == TaskChangedEvent.Type.CREATED) loadUser(event.getUserId());
+            return;
+        }
+        synchronized (this) {
+            String key = keyByTask.remove(event.getTaskId());
+            if (key != null) wheel.cancel(key);
+            Task task = event.getTask();
+            if (event.getType() == TaskChangedEvent.Type.DELETED || task == null || !isOpenWithDeadline(task)) return;
+            Reminder reminder = toReminder(task);
+            // beyond the loaded horizon the next window load picks it up
+            if (loadedUntil != 0 && reminder.getRemindAtMillis() < loadedUntil) {
+                wheel.schedule(reminder.key(), reminder.getRemindAtMillis(), reminder);
+                keyByTask.put(reminder.getTaskId(), reminder.key());
+            }
+        }
+    }
+
+    // Schedules the user's open deadlines inside the already loaded horizon; later ones come with the next window
+    private void loadUser(String userId) {
+        long now = System.currentTimeMillis();
+        long until;
+        synchronized (this) {
+            until = loadedUntil;
+        }
+        if (until <= now) return;
+        Query query = Query.query(Criteria.where("userId").is(userId)
+                .and("deadline").gte(toDateTime(now + leadMillis)).lt(toDateTime(until + leadMillis))
+                .and("status").ne("COMPLETED"));
+        query.fields().include("userId", "title", "deadline");
+        try {
+            for (Task task : mongoTemplate.find(query, Task.class)) {
+                Reminder reminder = toReminder(task);
+                synchronized (this) {
+                    if (!wheel.contains(reminder.key())) {
+                        wheel.schedule(reminder.key(), reminder.getRemindAtMillis(), reminder);
+                        keyByTask.put(reminder.getTaskId(), reminder.key());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Scheduling reminders for imported tasks of user {} failed: {}", userId, e.getMessage());
+        }
+    }
+
+    public synchronized int scheduledCount() {
+        return wheel.size();
+    }
+
+    // The wheel only sees writes made on this instance, so confirm the deadline is unchanged and the task
+    // still open, then claim the reminder; the claim is what makes delivery at most once across restarts
+    private void dispatch(List<Reminder> due) {
+        Set<String> stillDue;
+        try {
+            Query query = Query.query(Criteria.where("_id").in(due.stream().map(Reminder::getTaskId).toList())
+                    .and("status").ne("COMPLETED"));
+            query.fields().include("deadline");
+            stillDue = mongoTemplate.find(query, Task.class).stream()
+                    .filter(t -> t.getDeadline() != null)
+                    .map(t -> Reminder.key(t.getId(), t.getDeadline()))
+                    .collect(Collectors.toSet());
+        } catch (RuntimeException e) {
+            log.warn("Could not check {} due reminders, rescheduling: {}", due.size(), e.getMessage());
+            reschedule(due);
+            return;
+        }
+        for (Reminder reminder : due) {
+            if (!stillDue.contains(reminder.key())) continue;
+            try {
+                mongoTemplate.insert(new SentReminder(reminder.key(), reminder.getUserId(), Instant.now()));
+            } catch (DuplicateKeyException e) {
+                continue; // sent before a restart or by another instance
+            } catch (RuntimeException e) {
+                log.warn("Could not claim reminder {}, rescheduling: {}", reminder.key(), e.getMessage());
+                reschedule(List.of(reminder));
+                continue;
+            }
+            try {
+                sink.send(reminder);
+            } catch (RuntimeException e) {
+                log.warn("Reminder sink failed for {}: {}", reminder.key(), e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void reschedule(List<Reminder> reminders) {
+        long retryAt = System.currentTimeMillis() + 30_000;
+        for (Reminder reminder : reminders) {
+            wheel.schedule(reminder.key(), retryAt, reminder);
+            keyByTask.putIfAbsent(reminder.getTaskId(), reminder.key());
+        }
+    }
+
+    private Reminder toReminder(Task task) {
+        return new Reminder(task.getId(), task.getUserId(), task.getTitle(), task.getDeadline(),
+                toMillis(task.getDeadline()) - leadMillis);
+    }
+
+    private static boolean isOpenWithDeadline(Task task) {
+        return task.getDeadline() != null && !"COMPLETED".equals(task.getStatus());
+    }
+
+    // deadlines are stored as zone-less LocalDateTime in server time, as elsewhere in TaskService
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,226 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.model.DiaryEntry;
+import com.studypal.backend.model.DiarySummary;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.repository.DiaryEntryRepository;
+import com.studypal.backend.repository.DiarySummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class DiaryService {
+
+    private static final int MAX_SUMMARY_RETRIES = 5;
+
+    private final DiaryEntryRepository entryRepository;
+    private final DiarySummaryRepository summaryRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public DiaryService(DiaryEntryRepository entryRepository, DiarySummaryRepository summaryRepository, MongoTemplate mongoTemplate) {
+        this.entryRepository = entryRepository;
+        this.summaryRepository = summaryRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Create or replace the entry for a day and fold the difference into the summary
+    public DiaryEntry saveEntry(String userId, LocalDate date, DiaryEntry entry) {
+        if (date.isAfter(LocalDate.now())) {
+            throw new BadRequestException("date must not be in the future");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        entry.setId(entryId(userId, date));
+        entry.setUserId(userId);
+        entry.setDate(date);
+        entry.setTasksCompleted(countCompletedTasks(userId, date));
+        entry.setUpdatedAt(now);
+
+        Update update = new Update()
+                .set("content", entry.getContent())
+                .set("productivity", entry.getProductivity())
+                .set("focus", entry.getFocus())
+                .set("mood", entry.getMood())
+                .set("energy", entry.getEnergy())
+                .set("tasksCompleted", entry.getTasksCompleted())
+                .set("updatedAt", now)
+                .setOnInsert("userId", userId)
+                .setOnInsert("date", date)
+                .setOnInsert("createdAt", now);
+        DiaryEntry previous = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(entry.getId())), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false), DiaryEntry.class);
+        entry.setCreatedAt(previous == null ? now : previous.getCreatedAt());
+
+        updateSummary(userId, summary -> {
+            if (previous != null) {
+                apply(summary, previous, -1);
+            }
+            apply(summary, entry, 1);
+            if (previous == null) {
+                extendStreak(summary, userId, date);
+            }
+        });
+        return entry;
+    }
+
+    public Optional<DiaryEntry> getEntry(String userId, LocalDate date) {
+        return entryRepository.findById(entryId(userId, date));
+    }
+
+    public void deleteEntry(String userId, LocalDate date) {
+        DiaryEntry removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(entryId(userId, date))), DiaryEntry.class);
+        if (removed == null) return;
+        updateSummary(userId, summary -> {
+            apply(summary, removed, -1);
+            recomputeStreaks(summary, userId);
+        });
+    }
+
+    // History view: entries strictly before `before`, newest first
+    public List<DiaryEntry> history(String userId, LocalDate before, int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("limit must be between 1 and 100");
+        }
+        LocalDate bound = before == null ? LocalDate.now().plusDays(1) : before;
+        return entryRepository.findByUserIdAndDateLessThanOrderByDateDesc(userId, bound, PageRequest.of(0, limit));
+    }
+
+    // The stored streak ends at the last entry; it is only current if that entry is from today or yesterday
+    public DiarySummary getSummary(String userId) {
+        DiarySummary summary = loadSummary(userId);
+        LocalDate last = summary.getLastEntryDate();
+        if (last == null || last.isBefore(LocalDate.now().minusDays(1))) {
+            summary.setCurrentStreak(0);
+        }
+        return summary;
+    }
+
+    // Called as tasks complete: raises the day's entry, if there is one, and its share of the summary
+    public void recordCompletions(String userId, LocalDate day, long count) {
+        DiaryEntry previous = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(entryId(userId, day))),
+                new Update().inc("tasksCompleted", count), FindAndModifyOptions.options().returnNew(false), DiaryEntry.class);
+        if (previous == null) return;
+        DiaryEntry updated = new DiaryEntry();
+        BeanUtils.copyProperties(previous, updated);
+        updated.setTasksCompleted(previous.getTasksCompleted() + count);
+        updateSummary(userId, summary -> {
+            apply(summary, previous, -1);
+            apply(summary, updated, 1);
+        });
+    }
+
+    private DiarySummary loadSummary(String userId) {
+        return summaryRepository.findById(userId).orElseGet(() -> {
+            DiarySummary empty = new DiarySummary();
+            empty.setUserId(userId);
+            return empty;
+        });
+    }
+
+    // Read-modify-write on the summary, retried when a concurrent writer bumped its version
+    private void updateSummary(String userId, Consumer<DiarySummary> change) {
+        for (int attempt = 1; ; attempt++) {
+            DiarySummary summary = loadSummary(userId);
+            change.accept(summary);
+            try {
+                summaryRepository.save(summary);
+                return;
+            } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                if (attempt == MAX_SUMMARY_RETRIES) throw e;
+                log.debug("Diary summary for {} changed concurrently, retrying", userId);
+            }
+        }
+    }
+
+    private void apply(DiarySummary summary, DiaryEntry entry, int sign) {
+        summary.setTotalEntries(summary.getTotalEntries() + sign);
+        Double rating = entry.overallRating();
+        long tasks = entry.getTasksCompleted();
+        if (rating != null) {
+            summary.setRatedEntries(summary.getRatedEntries() + sign);
+            summary.setSumX(summary.getSumX() + sign * rating);
+            summary.setSumY(summary.getSumY() + sign * tasks);
+            summary.setSumXX(summary.getSumXX() + sign * rating * rating);
+            summary.setSumYY(summary.getSumYY() + sign * (double) tasks * tasks);
+            summary.setSumXY(summary.getSumXY() + sign * rating * tasks);
+        }
+
+        LocalDate d = entry.getDate();
+        String week = String.format("%d-W%02d", d.get(IsoFields.WEEK_BASED_YEAR), d.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        String month = String.format("%d-%02d", d.getYear(), d.getMonthValue());
+        applyToBucket(summary.getWeekly().computeIfAbsent(week, k -> new DiarySummary.Bucket()), rating, tasks, sign);
+        applyToBucket(summary.getMonthly().computeIfAbsent(month, k -> new DiarySummary.Bucket()), rating, tasks, sign);
+        if (summary.getWeekly().get(week).getEntries() == 0) summary.getWeekly().remove(week);
+        if (summary.getMonthly().get(month).getEntries() == 0) summary.getMonthly().remove(month);
+    }
+
+    private void applyToBucket(DiarySummary.Bucket bucket, Double rating, long tasks, int sign) {
+        bucket.setEntries(bucket.getEntries() + sign);
+        bucket.setTasksCompleted(bucket.getTasksCompleted() + sign * tasks);
+        if (rating != null) {
+            bucket.setRatedEntries(bucket.getRatedEntries() + sign);
+            bucket.setRatingSum(bucket.getRatingSum() + sign * rating);
+        }
+    }
+
+    // A new day at the end of the history extends or restarts the streak in O(1); back-filled days need a rescan
+    private void extendStreak(DiarySummary summary, String userId, LocalDate date) {
+        LocalDate last = summary.getLastEntryDate();
+        if (last != null && date.isBefore(last)) {
+            recomputeStreaks(summary, userId);
+            return;
+        }
+        int current = last != null && date.equals(last.plusDays(1)) ? summary.getCurrentStreak() + 1 : 1;
+        summary.setCurrentStreak(current);
+        summary.setLastEntryDate(date);
+        summary.setLongestStreak(Math.max(summary.getLongestStreak(), current));
+    }
+
+    // Rare path (deletes, back-fills): walk the entry dates only, using the (userId, date) index
+    private void recomputeStreaks(DiarySummary summary, String userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.ASC, "date"));
+        query.fields().include("date");
+        LocalDate previous = null;
+        int current = 0;
+        int longest = 0;
+        for (DiaryEntry e : mongoTemplate.find(query, DiaryEntry.class)) {
+            current = previous != null && e.getDate().equals(previous.plusDays(1)) ? current + 1 : 1;
+            longest = Math.max(longest, current);
+            previous = e.getDate();
+        }
+        summary.setCurrentStreak(current);
+        summary.setLongestStreak(longest);
+        summary.setLastEntryDate(previous);
+    }
+
+    // Tasks whose first completion fell on the day, live or archived; later completions arrive via recordCompletions
+    private long countCompletedTasks(String userId, LocalDate date) {
+        Query query = Query.query(Criteria.where("userId").is(userId)
+                .and("completedAt").gte(date.atStartOfDay()).lt(date.plusDays(1).atStartOfDay()));
+        return mongoTemplate.count(query, Task.class) + mongoTemplate.count(query, TaskArchiver.ARCHIVE);
+    }
+
+    private static String entryId(String userId, LocalDate date) {
+        return userId + ":" + date;
+    }
+}
@@ -0,0 +1,41 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.payload.DayPlan;
+import com.studypal.backend.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+@Service
+public class PlanningService {
+
+    static final String CACHE = "plans";
+
+    private final TaskRepository taskRepository;
+
+    @Autowired
+    public PlanningService(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    // Keys are scoped by user, so one eviction drops every date/hours variant of the user's plans
+    @Cacheable(value = CACHE, key = "#userId + ':' + #date + ':' + #availableHours + ':' + #optimize")
+    public DayPlan planDay(String userId, LocalDate date, int availableHours, boolean optimize) {
+        if (availableHours < 0 || availableHours > 24) {
+            throw new BadRequestException("hours must be between 0 and 24");
+        }
+        return DayPlanner.plan(userId, date, availableHours, taskRepository.findByUserIdAndStatusNot(userId, "COMPLETED"), optimize);
+    }
+
+    @EventListener
+    @CacheEvict(value = CACHE, key = "#event.userId")
+    public void onTaskChanged(TaskChangedEvent event) {
+        // eviction handled by the annotation
+    }
+}
@@ -0,0 +1,174 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.model.PomodoroEvent;
+import com.studypal.backend.model.PomodoroEventReceipt;
+import com.studypal.backend.model.PomodoroRollup;
+import com.studypal.backend.repository.PomodoroRollupRepository;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class PomodoroService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final PomodoroRollupRepository rollupRepository;
+
+    @Autowired
+    public PomodoroService(MongoTemplate mongoTemplate, PomodoroRollupRepository rollupRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollupRepository = rollupRepository;
+    }
+
+    // Append a client batch to the raw event store and fold it into the rollups, one bulk write each.
+    // Events whose id was already ingested (a client retry) are skipped; returns how many were new.
+    public int ingest(String userId, List<PomodoroEvent> events) {
+        for (PomodoroEvent e : events) {
+            String type = e.getType().toUpperCase();
+            if (!type.equals(PomodoroEvent.START) && !type.equals(PomodoroEvent.STOP) && !type.equals(PomodoroEvent.INTERRUPT)) {
+                throw new BadRequestException("type: must be one of START, STOP, INTERRUPT");
+            }
+            // taskId becomes part of a field path in the rollup ($inc tasks.<taskId>.*), so only ids are allowed
+            if (e.getTaskId() != null && !ObjectId.isValid(e.getTaskId())) {
+                throw new BadRequestException("taskId: must be a task id");
+            }
+            e.setId(null);
+            e.setUserId(userId);
+            e.setType(type);
+        }
+
+        List<PomodoroEvent> fresh = claim(userId, events);
+        if (fresh.isEmpty()) return 0;
+
+        Map<String, Update> rollupUpdates = new LinkedHashMap<>();
+        for (PomodoroEvent e : fresh) {
+            LocalDate day = e.getTimestamp().toLocalDate();
+            accumulate(rollupUpdates, userId, PomodoroRollup.DAILY, day, e);
+            accumulate(rollupUpdates, userId, PomodoroRollup.WEEKLY, day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), e);
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PomodoroEvent.class)
+                    .insert(fresh)
+                    .execute();
+
+            BulkOperations rollups = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PomodoroRollup.class);
+            rollupUpdates.forEach((id, update) -> rollups.upsert(Query.query(Criteria.where("id").is(id)), update));
+            rollups.execute();
+        } catch (RuntimeException e) {
+            release(userId, fresh);
+            throw e;
+        }
+
+        log.debug("Ingested {} of {} pomodoro events for user {} into {} rollups", fresh.size(), events.size(), userId, rollupUpdates.size());
+        return fresh.size();
+    }
+
+    // Inserts one receipt per event id and keeps the events whose receipt was new. A batch that then
+    // fails to write gives its receipts back (see release), so the client's retry is ingested.
+    private List<PomodoroEvent> claim(String userId, List<PomodoroEvent> events) {
+        Instant now = Instant.now();
+        List<PomodoroEventReceipt> receipts = events.stream()
+                .map(e -> new PomodoroEventReceipt(userId + ":" + e.getEventId(), userId, now))
+                .toList();
+        Set<Integer> duplicates = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PomodoroEventReceipt.class)
+                    .insert(receipts)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) throw e;
+                duplicates.add(error.getIndex());
+            }
+        }
+        List<PomodoroEvent> fresh = new ArrayList<>(events.size() - duplicates.size());
+        for (int i = 0; i < events.size(); i++) {
+            if (!duplicates.contains(i)) fresh.add(events.get(i));
+        }
+        return fresh;
+    }
+
+    // A failed write must not leave the events claimed, or the retry would be skipped as a duplicate.
+    // An unordered bulk write can fail part way, so a retry may count that part twice; losing the whole
+    // batch is the worse outcome for a user's focus history.
+    private void release(String userId, List<PomodoroEvent> events) {
+        List<String> ids = events.stream().map(e -> userId + ":" + e.getEventId()).toList();
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), PomodoroEventReceipt.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} pomodoro event receipts for user {}; a retry within their TTL is skipped: {}",
+                    ids.size(), userId, e.getMessage());
+        }
+    }
+
+    public List<PomodoroRollup> getRollups(String userId, String period, LocalDate from, LocalDate to) {
+        String p = period == null ? PomodoroRollup.DAILY : period.toUpperCase();
+        if (!p.equals(PomodoroRollup.DAILY) && !p.equals(PomodoroRollup.WEEKLY)) {
+            throw new BadRequestException("period: must be DAILY or WEEKLY");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        return rollupRepository.findRange(userId, p, from, to);
+    }
+
+    // Merge one event into the pending $inc for its bucket so each bucket is written once per batch
+    private void accumulate(Map<String, Update> updates, String userId, String period, LocalDate start, PomodoroEvent e) {
+        String id = userId + ":" + period + ":" + start;
+        Update update = updates.computeIfAbsent(id, k -> new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("period", period)
+                .setOnInsert("periodStart", start));
+
+        String taskPrefix = e.getTaskId() == null ? null : "tasks." + e.getTaskId() + ".";
+        switch (e.getType()) {
+            case PomodoroEvent.START:
+                inc(update, "sessions", 1, taskPrefix);
+                break;
+            case PomodoroEvent.INTERRUPT:
+                inc(update, "interruptions", 1, taskPrefix);
+                inc(update, "focusSeconds", e.getFocusSeconds(), taskPrefix);
+                break;
+            default:
+                inc(update, "focusSeconds", e.getFocusSeconds(), taskPrefix);
+        }
+    }
+
+    private void inc(Update update, String field, long amount, String taskPrefix) {
+        if (amount == 0) return;
+        add(update, field, amount);
+        if (taskPrefix != null) add(update, taskPrefix + field, amount);
+    }
+
+    // Update.inc replaces an earlier $inc of the same field, so sum into it for events sharing a bucket
+    private static void add(Update update, String field, long amount) {
+        Document incs = update.getUpdateObject().get("$inc", Document.class);
+        Number pending = incs == null ? null : incs.get(field, Number.class);
+        update.inc(field, pending == null ? amount : pending.longValue() + amount);
+    }
+}
@@ -0,0 +1,243 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.model.ProductivityBucket;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.repository.ProductivityBucketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// Completion analytics served from per-user daily buckets. TaskService reports each first transition to
+// COMPLETED here, so charts never scan tasks; backfill() rebuilds the buckets from tasks and the archive.
+// The rebuild is an operator job (analytics.backfill.on-startup), not an API: it touches every user.
+@Service
+@Slf4j
+public class ProductivityService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductivityBucketRepository bucketRepository;
+    private final DiaryService diaryService;
+    private final int backfillThreads;
+    private final int backfillBatchUsers;
+    private final boolean backfillOnStartup;
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+    private final ExecutorService backfillRunner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "productivity-backfill-runner");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public ProductivityService(MongoTemplate mongoTemplate, ProductivityBucketRepository bucketRepository, DiaryService diaryService,
+                               @Value("${analytics.backfill.threads:4}") int backfillThreads,
+                               @Value("${analytics.backfill.batch-users:200}") int backfillBatchUsers,
+                               @Value("${analytics.backfill.on-startup:false}") boolean backfillOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.bucketRepository = bucketRepository;
+        this.diaryService = diaryService;
+        this.backfillThreads = backfillThreads;
+        this.backfillBatchUsers = backfillBatchUsers;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    // Started once the app is ready; set the flag on one node for one deployment, then remove it
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        if (!backfillOnStartup) return;
+        backfillRunner.execute(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                log.error("Productivity backfill failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillRunner.shutdownNow();
+    }
+
+    // Folds newly completed tasks into their day buckets, one upsert per bucket, and into the diary entries of those days
+    public void recordCompletions(List<Task> completed) {
+        if (completed.isEmpty()) return;
+        Map<String, Update> updates = new LinkedHashMap<>();
+        Map<String, Map<LocalDate, Long>> perDay = new LinkedHashMap<>();
+        for (Task task : completed) {
+            LocalDate day = completionTime(task).toLocalDate();
+            perDay.computeIfAbsent(task.getUserId(), u -> new LinkedHashMap<>()).merge(day, 1L, Long::sum);
+            Update update = updates.computeIfAbsent(ProductivityBucket.idOf(task.getUserId(), day), id -> new Update()
+                    .setOnInsert("userId", task.getUserId())
+                    .setOnInsert("date", day));
+            update.inc("completed", 1).inc(outcome(task), 1).inc("estimatedHours", task.getEstimatedHours());
+        }
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductivityBucket.class);
+            updates.forEach((id, update) -> bulk.upsert(Query.query(Criteria.where("id").is(id)), update));
+            bulk.execute();
+        } catch (RuntimeException e) {
+            // the task write already succeeded; a backfill restores the missed increments
+            log.warn("Could not record {} completions in productivity buckets: {}", completed.size(), e.getMessage());
+        }
+        perDay.forEach((userId, days) -> days.forEach((day, count) -> {
+            try {
+                diaryService.recordCompletions(userId, day, count);
+            } catch (RuntimeException e) {
+                log.warn("Could not add {} completions to the diary of user {} for {}: {}", count, userId, day, e.getMessage());
+            }
+        }));
+    }
+
+    public List<ProductivityBucket> getSeries(String userId, String period, LocalDate from, LocalDate to) {
+        String p = period == null ? ProductivityBucket.DAILY : period.toUpperCase();
+        if (!p.equals(ProductivityBucket.DAILY) && !p.equals(ProductivityBucket.WEEKLY)) {
+            throw new BadRequestException("period: must be DAILY or WEEKLY");
+        }
+        if (from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (p.equals(ProductivityBucket.DAILY)) {
+            return bucketRepository.findRange(userId, from, to);
+        }
+        LocalDate weekStart = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        Map<LocalDate, ProductivityBucket> weeks = new LinkedHashMap<>();
+        for (ProductivityBucket day : bucketRepository.findRange(userId, weekStart, to)) {
+            LocalDate monday = day.getDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            ProductivityBucket week = weeks.computeIfAbsent(monday, d -> emptyBucket(userId, d));
+            week.setCompleted(week.getCompleted() + day.getCompleted());
+            week.setOnTime(week.getOnTime() + day.getOnTime());
+            week.setLate(week.getLate() + day.getLate());
+            week.setNoDeadline(week.getNoDeadline() + day.getNoDeadline());
+            week.setEstimatedHours(week.getEstimatedHours() + day.getEstimatedHours());
+        }
+        return new ArrayList<>(weeks.values());
+    }
+
+    // Recomputes every user's buckets from completed tasks (live and archived), batches of users in parallel.
+    // Each batch replaces its users' buckets; completions recorded for those users while their batch
+    // runs can be lost, so run it when writes are quiet. Returns null if a backfill is already running.
+    public Map<String, Object> backfill() {
+        if (!backfilling.compareAndSet(false, true)) return null;
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(backfillThreads, r -> {
+            Thread t = new Thread(r, "productivity-backfill");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Set<String> distinct = new LinkedHashSet<>(mongoTemplate.findDistinct(
+                    Query.query(everCompleted()), "userId", Task.class, String.class));
+            distinct.addAll(mongoTemplate.findDistinct(new Query(), "userId", TaskArchiver.ARCHIVE, String.class));
+            List<String> userIds = new ArrayList<>(distinct);
+
+            List<Future<long[]>> batches = new ArrayList<>();
+            for (int i = 0; i < userIds.size(); i += backfillBatchUsers) {
+                List<String> batch = userIds.subList(i, Math.min(i + backfillBatchUsers, userIds.size()));
+                batches.add(pool.submit(() -> rebuild(batch)));
+            }
+            long tasks = 0, buckets = 0;
+            for (Future<long[]> batch : batches) {
+                long[] counts = batch.get();
+                tasks += counts[0];
+                buckets += counts[1];
+            }
+            Map<String, Object> report = Map.of("users", userIds.size(), "batches", batches.size(), "tasks", tasks,
+                    "buckets", buckets, "millis", System.currentTimeMillis() - start);
+            log.info("Productivity backfill finished: {}", report);
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Productivity backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Productivity backfill failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            backfilling.set(false);
+        }
+    }
+
+    // One batch: stream the users' completed tasks, sum per day, then swap their buckets in two bulk writes
+    private long[] rebuild(List<String> userIds) {
+        Map<String, ProductivityBucket> buckets = new HashMap<>();
+        long tasks = 0;
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("userId").in(userIds), everCompleted()));
+        query.fields().include("userId", "deadline", "estimatedHours", "completedAt", "updatedAt");
+        for (String collection : List.of("tasks", TaskArchiver.ARCHIVE)) {
+            try (Stream<Task> stream = mongoTemplate.stream(query, Task.class, collection)) {
+                for (Task task : (Iterable<Task>) stream::iterator) {
+                    LocalDate day = completionTime(task).toLocalDate();
+                    ProductivityBucket b = buckets.computeIfAbsent(ProductivityBucket.idOf(task.getUserId(), day),
+                            id -> emptyBucket(task.getUserId(), day));
+                    b.setCompleted(b.getCompleted() + 1);
+                    b.setEstimatedHours(b.getEstimatedHours() + task.getEstimatedHours());
+                    switch (outcome(task)) {
+                        case "onTime" -> b.setOnTime(b.getOnTime() + 1);
+                        case "late" -> b.setLate(b.getLate() + 1);
+                        default -> b.setNoDeadline(b.getNoDeadline() + 1);
+                    }
+                    tasks++;
+                }
+            }
+        }
+        mongoTemplate.remove(Query.query(Criteria.where("userId").in(userIds)), ProductivityBucket.class);
+        if (!buckets.isEmpty()) {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductivityBucket.class)
+                    .insert(new ArrayList<>(buckets.values()))
+                    .execute();
+        }
+        return new long[]{tasks, buckets.size()};
+    }
+
+    // Like recordCompletions, a task counts from its first completion even if it was re-opened since;
+    // tasks completed before completedAt existed only show it in their status
+    private static Criteria everCompleted() {
+        return new Criteria().orOperator(Criteria.where("completedAt").exists(true), Criteria.where("status").is("COMPLETED"));
+    }
+
+    // Tasks completed before completedAt existed fall back to their last update
+    private static LocalDateTime completionTime(Task task) {
+        if (task.getCompletedAt() != null) return task.getCompletedAt();
+        return task.getUpdatedAt() != null ? task.getUpdatedAt() : LocalDateTime.now();
+    }
+
+    private static String outcome(Task task) {
+        if (task.getDeadline() == null) return "noDeadline";
+        return completionTime(task).isAfter(task.getDeadline()) ? "late" : "onTime";
+    }
+
+    private static ProductivityBucket emptyBucket(String userId, LocalDate date) {
+        ProductivityBucket b = new ProductivityBucket();
+        b.setId(ProductivityBucket.idOf(userId, date));
+        b.setUserId(userId);
+        b.setDate(date);
+        return b;
+    }
+}
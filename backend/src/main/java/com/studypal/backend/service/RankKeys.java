@@ -0,0 +1,83 @@
+package com.studypal.backend.service;
+
+import java.math.BigInteger;
+
+// Lexicographic fractional keys (digits then lower-case letters): a key can always be generated
+// strictly between two others, so moving an item only rewrites that item's key.
+public final class RankKeys {
+
+    static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+    static final int BASE = ALPHABET.length();
+
+    private RankKeys() {}
+
+    // Key strictly between lower and upper; null means unbounded on that side
+    public static String between(String lower, String upper) {
+        String a = lower == null ? "" : lower;
+        if (upper != null && a.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("lower must sort before upper: " + lower + " / " + upper);
+        }
+        StringBuilder key = new StringBuilder();
+        int i = 0;
+        while (true) {
+            int da = i < a.length() ? digit(a.charAt(i)) : 0;
+            if (upper != null && i >= upper.length()) {
+                throw new IllegalArgumentException("no key fits between " + lower + " and " + upper);
+            }
+            int db = upper == null ? BASE : digit(upper.charAt(i));
+            if (da == db) {
+                key.append(ALPHABET.charAt(da));
+                i++;
+                continue;
+            }
+            if (db - da > 1) {
+                return key.append(ALPHABET.charAt((da + db) / 2)).toString();
+            }
+            // adjacent digits: keep lower's digit and find room above the rest of lower
+            key.append(ALPHABET.charAt(da));
+            i++;
+            upper = null;
+        }
+    }
+
+    // Short key after last, used to append to a column: bump the first digit that can be bumped
+    public static String after(String last) {
+        if (last == null) return between(null, null);
+        for (int i = 0; i < last.length(); i++) {
+            int d = digit(last.charAt(i));
+            if (d < BASE - 1) {
+                return last.substring(0, i) + ALPHABET.charAt(d + 1);
+            }
+        }
+        return last + ALPHABET.charAt(BASE / 2);
+    }
+
+    // n evenly spaced keys with room left between neighbours, used when rebalancing a column
+    public static String[] spread(int n) {
+        int width = 1;
+        double capacity = BASE;
+        while (capacity < (n + 1) * (double) BASE) {
+            width++;
+            capacity *= BASE;
+        }
+        String[] keys = new String[n];
+        BigInteger space = BigInteger.valueOf(BASE).pow(width);
+        BigInteger step = space.divide(BigInteger.valueOf(n + 1L));
+        for (int i = 0; i < n; i++) {
+            String raw = step.multiply(BigInteger.valueOf(i + 1L)).toString(BASE);
+            StringBuilder padded = new StringBuilder();
+            for (int p = raw.length(); p < width; p++) padded.append('0');
+            padded.append(raw);
+            int end = padded.length();
+            while (end > 1 && padded.charAt(end - 1) == '0') end--; // a trailing 0 would leave no room below
+            keys[i] = padded.substring(0, end);
+        }
+        return keys;
+    }
+
+    private static int digit(char c) {
+        int d = ALPHABET.indexOf(c);
+        if (d < 0) throw new IllegalArgumentException("invalid rank character: " + c);
+        return d;
+    }
+}
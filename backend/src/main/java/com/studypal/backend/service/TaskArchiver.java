@@ -0,0 +1,191 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves COMPLETED tasks untouched for tasks.archive.after-days from "tasks" to "tasks_archive", so the hot
+// collection and its userId indexes only hold live work. Each batch is copy (upsert by _id) -> delete
+// (only if still COMPLETED at the copied version) -> drop copies whose delete lost a race, so a batch can
+// be re-run or interrupted at any step; history reads also de-duplicate by _id, preferring the hot copy.
+// A run sleeps between batches for minutes, so it has its own thread rather than Spring's single
+// scheduler thread, which the reminder window load and the rank rebalancer depend on.
+@Service
+@Slf4j
+public class TaskArchiver {
+
+    public static final String ARCHIVE = "tasks_archive";
+    private static final String TASKS = "tasks";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long pauseMillis;
+    private final long intervalMillis;
+    private final ScheduledExecutorService runner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "task-archiver");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Counter archived;
+    private final AtomicLong indexBytes = new AtomicLong();
+    private final AtomicLong dataBytes = new AtomicLong();
+    private final AtomicLong documents = new AtomicLong();
+
+    @Autowired
+    public TaskArchiver(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher, MeterRegistry registry,
+                        @Value("${tasks.archive.enabled:true}") boolean enabled,
+                        @Value("${tasks.archive.after-days:90}") int afterDays,
+                        @Value("${tasks.archive.batch-size:500}") int batchSize,
+                        @Value("${tasks.archive.max-batches-per-run:200}") int maxBatches,
+                        @Value("${tasks.archive.pause-ms:200}") long pauseMillis,
+                        @Value("${tasks.archive.interval-ms:3600000}") long intervalMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pauseMillis = pauseMillis;
+        this.intervalMillis = intervalMillis;
+        this.archived = registry.counter("tasks.archive.moved");
+        Gauge.builder("tasks.collection.index.bytes", indexBytes, AtomicLong::get).baseUnit("bytes").register(registry);
+        Gauge.builder("tasks.collection.data.bytes", dataBytes, AtomicLong::get).baseUnit("bytes").register(registry);
+        Gauge.builder("tasks.collection.documents", documents, AtomicLong::get).register(registry);
+    }
+
+    @PostConstruct
+    public void schedule() {
+        if (!enabled) return;
+        runner.scheduleWithFixedDelay(() -> {
+            try {
+                archive();
+            } catch (RuntimeException e) {
+                // an exception would cancel the schedule; the next run retries
+                log.warn("Task archive run failed: {}", e.getMessage());
+            }
+        }, 60_000, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow(); // interrupts the pause between batches; a batch is safe to cut short
+    }
+
+    public void archive() {
+        if (!enabled) return;
+        Document before = collStats();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        double movedBefore = archived.count();
+        for (int batch = 0; batch < maxBatches; batch++) {
+            if (archiveBatch(cutoff) < batchSize) break;
+            // throttle: leave room for foreground traffic and replication between batches
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Document after = collStats();
+        long moved = (long) (archived.count() - movedBefore);
+        if (moved > 0) report(moved, before, after);
+    }
+
+    // Returns how many tasks this batch looked at (a short batch means the backlog is drained)
+    int archiveBatch(LocalDateTime cutoff) {
+        // served by the partial (updatedAt) index on completed tasks
+        Query eligible = Query.query(Criteria.where("status").is("COMPLETED").and("updatedAt").lt(cutoff))
+                .with(Sort.by("updatedAt"))
+                .limit(batchSize);
+        List<Document> docs = mongoTemplate.find(eligible, Document.class, TASKS);
+        if (docs.isEmpty()) return 0;
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations copy = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE);
+        for (Document doc : docs) {
+            copy.replaceOne(Query.query(Criteria.where("_id").is(doc.get("_id"))), new Document(doc).append("archivedAt", now),
+                    FindAndReplaceOptions.options().upsert());
+        }
+        copy.execute();
+
+        // delete only what was copied: a task re-opened or edited since the read keeps its version mismatch
+        BulkOperations delete = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TASKS);
+        List<Object> ids = new ArrayList<>(docs.size());
+        Set<String> userIds = new HashSet<>();
+        for (Document doc : docs) {
+            ids.add(doc.get("_id"));
+            userIds.add(doc.getString("userId"));
+            delete.remove(Query.query(Criteria.where("_id").is(doc.get("_id")).and("status").is("COMPLETED")
+                    .and("version").is(doc.get("version"))));
+        }
+        long deleted = delete.execute().getDeletedCount();
+
+        if (deleted < docs.size()) {
+            Query survivors = Query.query(Criteria.where("_id").in(ids));
+            survivors.fields().include("_id");
+            List<Object> kept = mongoTemplate.find(survivors, Document.class, TASKS).stream().map(d -> d.get("_id")).toList();
+            if (!kept.isEmpty()) mongoTemplate.remove(Query.query(Criteria.where("_id").in(kept)), ARCHIVE);
+        }
+        archived.increment(deleted);
+        // archived tasks leave the per-user pages, dashboard and plans
+        userIds.forEach(userId -> eventPublisher.publishEvent(new TaskChangedEvent(userId, null, TaskChangedEvent.Type.UPDATED, null)));
+        return docs.size();
+    }
+
+    // Freed pages are reused by WiredTiger rather than returned to the OS, so storage sizes only drop after a
+    // compact; live document and index entry counts drop immediately and are what the working set tracks
+    private void report(long moved, Document before, Document after) {
+        log.info("Archived {} completed tasks older than {} days: documents {} -> {}, data {} -> {} bytes, indexes {} -> {} bytes",
+                moved, afterDays,
+                number(before, "count"), number(after, "count"),
+                number(before, "size"), number(after, "size"),
+                number(before, "totalIndexSize"), number(after, "totalIndexSize"));
+    }
+
+    private Document collStats() {
+        try {
+            Document stats = mongoTemplate.getDb().runCommand(new Document("collStats", TASKS));
+            documents.set(number(stats, "count"));
+            dataBytes.set(number(stats, "size"));
+            indexBytes.set(number(stats, "totalIndexSize"));
+            return stats;
+        } catch (RuntimeException e) {
+            log.debug("collStats unavailable: {}", e.getMessage());
+            return new Document();
+        }
+    }
+
+    private static long number(Document d, String key) {
+        Object value = d.get(key);
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.importer.CsvTaskReader;
+import com.studypal.backend.importer.IcsTaskReader;
+import com.studypal.backend.importer.ImportRow;
+import com.studypal.backend.importer.TaskRowReader;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.payload.ImportReport;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// Bulk task import from a CSV or iCalendar request body. Rows are parsed one at a time off the request
+// stream, validated, and inserted in unordered bulk batches of tasks.import.batch-size on a small writer
+// pool. Each import keeps at most one batch in flight while it parses the next, so a slow database stalls
+// the parser and, through it, the upload itself; memory is two batches whatever the size of the file.
+@Service
+@Slf4j
+public class TaskImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int PROGRESS_EVERY_BATCHES = 10;
+    private static final Set<String> PRIORITIES = Set.of("HIGH", "MEDIUM", "LOW");
+    private static final Set<String> STATUSES = Set.of("TO_DO", "IN_PROGRESS", "COMPLETED");
+
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final TaskRankRebalancer rankRebalancer;
+    private final ProductivityService productivity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long maxRows;
+    private final ExecutorService writers;
+
+    @Autowired
+    public TaskImportService(MongoTemplate mongoTemplate, Validator validator, TaskRankRebalancer rankRebalancer,
+                             ProductivityService productivity, ApplicationEventPublisher eventPublisher,
+                             @Value("${tasks.import.batch-size:500}") int batchSize,
+                             @Value("${tasks.import.max-rows:100000}") long maxRows,
+                             @Value("${tasks.import.writer-threads:2}") int writerThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+        this.rankRebalancer = rankRebalancer;
+        this.productivity = productivity;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread t = new Thread(r, "task-import-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    // format is "csv" or "ics"; when absent it is taken from the Content-Type
+    public ImportReport importTasks(String userId, String format, String contentType, InputStream body) throws IOException {
+        if (userId == null || userId.isBlank()) throw new BadRequestException("userId is required");
+        String f = format != null ? format.toLowerCase(Locale.ROOT) : formatOf(contentType);
+        InputStreamReader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+        TaskRowReader rows = switch (f == null ? "" : f) {
+            case "csv" -> new CsvTaskReader(reader);
+            case "ics" -> new IcsTaskReader(reader);
+            default -> throw new BadRequestException("format: must be csv or ics");
+        };
+
+        long start = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        report.setFormat(f);
+        Map<String, String> lastRanks = new HashMap<>();
+        List<Task> batch = new ArrayList<>(batchSize);
+        List<Integer> lines = new ArrayList<>(batchSize);
+        Future<BatchResult> inFlight = null;
+        try {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                if (report.getRows() >= maxRows) {
+                    report.setTruncated(true);
+                    break;
+                }
+                report.setRows(report.getRows() + 1);
+                String error = row.getError() != null ? row.getError() : prepare(row.getTask(), userId);
+                if (error != null) {
+                    reject(report, row.getLine(), error);
+                    continue;
+                }
+                Task task = row.getTask();
+                // append to the end of the column like createTask, reading the current tail once per column
+                String last = lastRanks.containsKey(task.getStatus()) ? lastRanks.get(task.getStatus())
+                        : rankRebalancer.lastRank(userId, task.getStatus());
+                task.setRank(RankKeys.after(last));
+                lastRanks.put(task.getStatus(), task.getRank());
+                batch.add(task);
+                lines.add(row.getLine());
+                if (batch.size() == batchSize) {
+                    await(report, inFlight, userId);
+                    inFlight = writers.submit(write(batch, lines));
+                    batch = new ArrayList<>(batchSize);
+                    lines = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                await(report, inFlight, userId);
+                inFlight = writers.submit(write(batch, lines));
+            }
+            await(report, inFlight, userId);
+            inFlight = null;
+        } finally {
+            if (inFlight != null) {
+                // the upload failed mid-way: let the last batch land so the events below cover it
+                try {
+                    await(report, inFlight, userId);
+                } catch (RuntimeException e) {
+                    log.debug("Last import batch for user {} failed: {}", userId, e.getMessage());
+                }
+            }
+            if (report.getImported() > 0) {
+                lastRanks.forEach((status, rank) -> rankRebalancer.checkLength(userId, status, rank));
+                eventPublisher.publishEvent(new TaskChangedEvent(userId, null, TaskChangedEvent.Type.CREATED, null));
+            }
+        }
+        report.setMillis(System.currentTimeMillis() - start);
+        log.info("Imported {} of {} {} rows for user {} in {} batches ({} ms{})", report.getImported(), report.getRows(),
+                f, userId, report.getBatches(), report.getMillis(), report.isTruncated() ? ", truncated" : "");
+        return report;
+    }
+
+    static String formatOf(String contentType) {
+        if (contentType == null) return null;
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("calendar")) return "ics";
+        if (type.contains("csv")) return "csv";
+        return null;
+    }
+
+    // Fills in defaults and server-owned fields, returns why the row is rejected or null
+    private String prepare(Task task, String userId) {
+        LocalDateTime now = LocalDateTime.now();
+        task.setId(null);
+        task.setUserId(userId);
+        task.setPriority(task.getPriority() == null ? "MEDIUM" : task.getPriority().toUpperCase(Locale.ROOT));
+        if (task.getStatus() == null && task.getCompletedAt() != null) task.setStatus("COMPLETED");
+        task.setStatus(task.getStatus() == null ? "TO_DO" : task.getStatus().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        // only the source's completion time is kept: it places the completion on its real day in productivity
+        // and the diary, while a completed row without one is stored but not counted as completed today
+        if (!"COMPLETED".equals(task.getStatus())) task.setCompletedAt(null);
+        if (task.getCompletedAt() != null && task.getCompletedAt().isAfter(now)) return "completedAt: must not be in the future";
+        task.setVersion(0L);
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).collect(Collectors.joining("; "));
+        }
+        if (!PRIORITIES.contains(task.getPriority())) return "priority: must be one of HIGH, MEDIUM, LOW";
+        if (!STATUSES.contains(task.getStatus())) return "status: must be one of TO_DO, IN_PROGRESS, COMPLETED";
+        return null;
+    }
+
+    private Callable<BatchResult> write(List<Task> batch, List<Integer> lines) {
+        return () -> {
+            Set<Integer> failed = new HashSet<>();
+            List<ImportReport.RowError> errors = new ArrayList<>();
+            int inserted;
+            try {
+                inserted = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class).insert(batch).execute().getInsertedCount();
+            } catch (BulkOperationException e) {
+                // unordered: the rest of the batch is written, only the listed rows are not
+                e.getErrors().forEach(err -> {
+                    failed.add(err.getIndex());
+                    errors.add(new ImportReport.RowError(lines.get(err.getIndex()), "not stored: " + err.getMessage()));
+                });
+                inserted = e.getResult().getInsertedCount();
+            }
+            List<Task> completed = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                if (!failed.contains(i) && batch.get(i).getCompletedAt() != null) completed.add(batch.get(i));
+            }
+            productivity.recordCompletions(completed);
+            return new BatchResult(inserted, errors);
+        };
+    }
+
+    // Waits for the previous batch; this wait is the backpressure on the parser
+    private void await(ImportReport report, Future<BatchResult> batch, String userId) {
+        if (batch == null) return;
+        BatchResult result;
+        try {
+            result = batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException r ? r : new IllegalStateException("Import batch failed", e.getCause());
+        }
+        report.setImported(report.getImported() + result.inserted);
+        report.setBatches(report.getBatches() + 1);
+        result.errors.forEach(error -> reject(report, error.getLine(), error.getMessage()));
+        if (report.getBatches() % PROGRESS_EVERY_BATCHES == 0) {
+            log.info("Import for user {}: {} rows read, {} imported, {} rejected", userId, report.getRows(),
+                    report.getImported(), report.getRejected());
+        }
+    }
+
+    private static void reject(ImportReport report, int line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportReport.RowError(line, message));
+        }
+    }
+
+    @AllArgsConstructor
+    private static class BatchResult {
+        private final int inserted;
+        private final List<ImportReport.RowError> errors;
+    }
+}
@@ -0,0 +1,98 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.model.Task;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Rank keys grow when items are repeatedly dropped into the same gap; this respaces such columns
+@Service
+@Slf4j
+public class TaskRankRebalancer {
+
+    // Same order Mongo gives getColumn's rank-then-_id sort: missing ranks first, ties by id
+    static final Comparator<Task> COLUMN_ORDER = Comparator
+            .comparing(Task::getRank, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Task::getId);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxRankLength;
+    private final Set<String> pendingColumns = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TaskRankRebalancer(MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+                              @Value("${tasks.rank.max-length:12}") int maxRankLength) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxRankLength = maxRankLength;
+    }
+
+    // Highest rank in a column, from the tail of the (userId, status, rank) index
+    public String lastRank(String userId, String status) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("status").is(status).and("rank").ne(null))
+                .with(Sort.by(Sort.Direction.DESC, "rank"))
+                .limit(1);
+        query.fields().include("rank");
+        Task last = mongoTemplate.findOne(query, Task.class);
+        return last == null ? null : last.getRank();
+    }
+
+    // Called after a move; columns whose keys grew too long are respaced by the next scheduled run
+    public void checkLength(String userId, String status, String rank) {
+        if (rank != null && rank.length() > maxRankLength) {
+            pendingColumns.add(userId + "\u0000" + status);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.rank.rebalance-interval-ms:10000}")
+    public void rebalancePending() {
+        for (Iterator<String> it = pendingColumns.iterator(); it.hasNext(); ) {
+            String[] column = it.next().split("\u0000", 2);
+            it.remove();
+            try {
+                rebalanceColumn(column[0], column[1]);
+                log.debug("Rebalanced rank keys of column {} for user {}", column[1], column[0]);
+            } catch (Exception e) {
+                log.warn("Rank rebalance of column {} for user {} failed: {}", column[1], column[0], e.getMessage());
+            }
+        }
+    }
+
+    // Reassign evenly spaced keys in the order the column is displayed in (COLUMN_ORDER), so unranked
+    // legacy tasks and tasks sharing a key stay where the user sees them. Each write is conditional on
+    // the old key so a concurrent move is not overwritten.
+    public void rebalanceColumn(String userId, String status) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("status").is(status));
+        query.fields().include("rank");
+        List<Task> tasks = mongoTemplate.find(query, Task.class);
+        tasks.sort(COLUMN_ORDER);
+        if (tasks.isEmpty()) return;
+
+        String[] keys = RankKeys.spread(tasks.size());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Task.class);
+        for (int i = 0; i < tasks.size(); i++) {
+            Task t = tasks.get(i);
+            bulk.updateOne(Query.query(Criteria.where("id").is(t.getId()).and("rank").is(t.getRank())),
+                    new Update().set("rank", keys[i]));
+        }
+        bulk.execute();
+        eventPublisher.publishEvent(new TaskChangedEvent(userId, null, TaskChangedEvent.Type.UPDATED, null));
+    }
+}
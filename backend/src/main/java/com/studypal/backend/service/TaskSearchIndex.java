@@ -0,0 +1,280 @@
+package com.studypal.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory n-gram index over task title/description, one per user, built lazily and kept
+// current from TaskChangedEvents. Users are evicted when the total footprint exceeds the budget.
+@Service
+@Slf4j
+public class TaskSearchIndex {
+
+    private final TaskRepository taskRepository;
+    private final boolean enabled;
+    private final Cache<String, UserIndex> indexes;
+
+    @Autowired
+    public TaskSearchIndex(TaskRepository taskRepository,
+                           @Value("${search.index.enabled:true}") boolean enabled,
+                           @Value("${search.index.max-bytes:67108864}") long maxBytes) {
+        this.taskRepository = taskRepository;
+        this.enabled = enabled;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String userId, UserIndex index) -> (int) Math.min(Integer.MAX_VALUE, index.estimatedBytes()))
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Ranked ids of the user's tasks whose title or description contains q (case-insensitive)
+    public List<String> search(String userId, String q) {
+        UserIndex index = indexes.get(userId, this::build);
+        return index.search(normalize(q));
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!enabled) return;
+        if (event.getTask() == null) {
+            // bulk status changes don't touch indexed text; bulk creations (imports) rebuild on the next query
+            if (event.getType() == TaskChangedEvent.Type.CREATED) indexes.invalidate(event.getUserId());
+            return;
+        }
+        // compute re-weighs the entry; users without an index are built fresh on their next query
+        indexes.asMap().computeIfPresent(event.getUserId(), (userId, index) -> {
+            if (event.getType() == TaskChangedEvent.Type.DELETED) {
+                index.remove(event.getTaskId());
+            } else {
+                index.put(event.getTask());
+            }
+            return index;
+        });
+    }
+
+    private UserIndex build(String userId) {
+        long start = System.nanoTime();
+        UserIndex index = new UserIndex();
+        for (Task t : taskRepository.findByUserId(userId)) {
+            index.put(t);
+        }
+        log.debug("Built search index for user {} with {} tasks in {} ms", userId, index.liveCount(), (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    // n-grams of length 1..3 packed into a long: length in the top bits, then up to three UTF-16 chars
+    static long gram(CharSequence s, int from, int len) {
+        long key = (long) len << 48;
+        for (int i = 0; i < len; i++) {
+            key |= (long) s.charAt(from + i) << (16 * (2 - i));
+        }
+        return key;
+    }
+
+    static final class UserIndex {
+        private static final int MAX_GRAM = 3;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, IntList> postings = new HashMap<>();
+        private final Map<String, Integer> slotById = new HashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> titles = new ArrayList<>();
+        private final List<String> descriptions = new ArrayList<>();
+        private final BitSet dead = new BitSet();
+        private int deadCount;
+        private long textChars;
+
+        void put(Task task) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(task.getId());
+                addLocked(task.getId(), normalize(task.getTitle()), normalize(task.getDescription()));
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(String id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<String> search(String q) {
+            if (q.isEmpty()) return List.of();
+            lock.readLock().lock();
+            try {
+                int[] candidates = candidates(q);
+                boolean verify = q.length() > MAX_GRAM;
+                List<int[]> scored = new ArrayList<>();
+                for (int slot : candidates) {
+                    if (dead.get(slot)) continue;
+                    int score = score(titles.get(slot), descriptions.get(slot), q);
+                    if (verify && score == 0) continue;
+                    scored.add(new int[]{slot, score});
+                }
+                scored.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+                List<String> result = new ArrayList<>(scored.size());
+                for (int[] s : scored) result.add(ids.get(s[0]));
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int liveCount() {
+            return ids.size() - deadCount;
+        }
+
+        // Rough heap footprint: postings arrays, map entries and the retained lower-cased text
+        long estimatedBytes() {
+            long bytes = 64L * postings.size() + 96L * ids.size() + 2L * textChars;
+            for (IntList list : postings.values()) bytes += 4L * list.capacity();
+            return bytes;
+        }
+
+        // Short queries are a single gram lookup; longer ones intersect their trigram postings
+        private int[] candidates(String q) {
+            if (q.length() <= MAX_GRAM) {
+                IntList list = postings.get(gram(q, 0, q.length()));
+                return list == null ? new int[0] : list.toArray();
+            }
+            List<IntList> lists = new ArrayList<>();
+            for (int i = 0; i + MAX_GRAM <= q.length(); i++) {
+                IntList list = postings.get(gram(q, i, MAX_GRAM));
+                if (list == null) return new int[0];
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            int[] acc = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && acc.length > 0; i++) {
+                acc = lists.get(i).intersect(acc);
+            }
+            return acc;
+        }
+
+        // Title hits outrank description hits; prefixes of the title or of a title word rank higher
+        private static int score(String title, String description, String q) {
+            int score = 0;
+            int at = title.indexOf(q);
+            if (at >= 0) {
+                score += 10;
+                if (at == 0) score += 5;
+                else if (!Character.isLetterOrDigit(title.charAt(at - 1))) score += 3;
+            }
+            if (description.contains(q)) score += 1;
+            return score;
+        }
+
+        private void addLocked(String id, String title, String description) {
+            int slot = ids.size();
+            ids.add(id);
+            titles.add(title);
+            descriptions.add(description);
+            slotById.put(id, slot);
+            textChars += title.length() + description.length();
+            indexText(slot, title);
+            indexText(slot, description);
+        }
+
+        private void indexText(int slot, String text) {
+            for (int i = 0; i < text.length(); i++) {
+                for (int len = 1; len <= MAX_GRAM && i + len <= text.length(); len++) {
+                    postings.computeIfAbsent(gram(text, i, len), k -> new IntList()).addIfLast(slot);
+                }
+            }
+        }
+
+        private void removeLocked(String id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) return;
+            dead.set(slot);
+            deadCount++;
+            textChars -= titles.get(slot).length() + descriptions.get(slot).length();
+            titles.set(slot, "");
+            descriptions.set(slot, "");
+        }
+
+        // Tombstoned slots are dropped by re-indexing the live text once they dominate
+        private void compactIfNeeded() {
+            if (deadCount < 64 || deadCount < liveCount()) return;
+            List<String[]> live = new ArrayList<>(liveCount());
+            for (int slot = 0; slot < ids.size(); slot++) {
+                if (!dead.get(slot)) live.add(new String[]{ids.get(slot), titles.get(slot), descriptions.get(slot)});
+            }
+            postings.clear();
+            slotById.clear();
+            ids.clear();
+            titles.clear();
+            descriptions.clear();
+            dead.clear();
+            deadCount = 0;
+            textChars = 0;
+            for (String[] doc : live) addLocked(doc[0], doc[1], doc[2]);
+        }
+    }
+
+    // Growable sorted int array; slots are appended in increasing order so it stays sorted
+    static final class IntList {
+        private int[] data = new int[2];
+        private int size;
+
+        void addIfLast(int value) {
+            if (size > 0 && data[size - 1] == value) return;
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return data.length;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        // Sorted-merge intersection with another sorted array
+        int[] intersect(int[] other) {
+            int[] out = new int[Math.min(size, other.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < size && j < other.length) {
+                if (data[i] < other[j]) i++;
+                else if (data[i] > other[j]) j++;
+                else { out[n++] = data[i]; i++; j++; }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+}
@@ -1,19 +1,38 @@
 package com.studypal.backend.service;
 
+import com.studypal.backend.cache.SingleFlight;
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.exception.BadRequestException;
+import com.studypal.backend.exception.TaskNotFoundException;
 import com.studypal.backend.model.Task;
+import com.studypal.backend.payload.TaskMoveRequest;
+import com.studypal.backend.payload.TaskPatchRequest;
 import com.studypal.backend.repository.TaskRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import java.util.List;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -22,57 +41,256 @@ import java.util.stream.Collectors;
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskSearchIndex searchIndex;
+    private final TaskRankRebalancer rankRebalancer;
+    private final SingleFlight taskReads;
+    private final ProductivityService productivity;
+
+    private static final int MAX_STATUS_ATTEMPTS = 3;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository) {
+    public TaskService(TaskRepository taskRepository, MongoTemplate mongoTemplate, ApplicationEventPublisher eventPublisher,
+                       TaskSearchIndex searchIndex, TaskRankRebalancer rankRebalancer, SingleFlight taskReads,
+                       ProductivityService productivity) {
         this.taskRepository = taskRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.rankRebalancer = rankRebalancer;
+        this.taskReads = taskReads;
+        this.productivity = productivity;
     }
 
     public Task createTask(Task task) {
     task.setCreatedAt(LocalDateTime.now());
     task.setUpdatedAt(LocalDateTime.now());
+    task.setCompletedAt(isCompleted(task.getStatus()) ? task.getUpdatedAt() : null);
+    task.setRank(RankKeys.after(rankRebalancer.lastRank(task.getUserId(), task.getStatus()))); // append to the column
     Task saved = taskRepository.save(task);
+    rankRebalancer.checkLength(saved.getUserId(), saved.getStatus(), saved.getRank());
     log.info("Created task {} for user {}", saved.getId(), saved.getUserId());
+    publish(saved, TaskChangedEvent.Type.CREATED);
+    if (saved.getCompletedAt() != null) productivity.recordCompletions(List.of(saved));
     return saved;
     }
 
     public List<Task> getTasksByUserId(String userId) {
-        return taskRepository.findByUserId(userId);
+        return findByUser(userId);
+    }
+
+    // Live tasks plus those moved to tasks_archive, newest first; only for history/export style reads
+    public List<Task> getTaskHistory(String userId) {
+        Map<String, Task> byId = new HashMap<>();
+        mongoTemplate.find(Query.query(Criteria.where("userId").is(userId)), Task.class, TaskArchiver.ARCHIVE)
+                .forEach(t -> byId.put(t.getId(), t));
+        // a task caught mid-archival exists in both; the live copy wins
+        findByUser(userId).forEach(t -> byId.put(t.getId(), t));
+        return byId.values().stream()
+                .sorted(Comparator.comparing(Task::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder())))
+                .collect(Collectors.toList());
+    }
+
+    // All of a user's tasks; the list, overdue, sorted, search and stats reads of one page load share one query.
+    // The result may be handed to several callers, so it is read-only.
+    private List<Task> findByUser(String userId) {
+        return taskReads.execute(userId, () -> Collections.unmodifiableList(taskRepository.findByUserId(userId)));
     }
 
     public Optional<Task> getTaskById(String id) {
         return taskRepository.findById(id);
     }
 
-    @Cacheable(value = "tasks", key = "#userId + '-' + #page + '-' + #size")
+    @Cacheable(value = "tasks", key = "#userId + ':' + #page + ':' + #size")
     public Page<Task> getTasksByUserId(String userId, int page, int size) {
-        return taskRepository.findByUserId(userId, PageRequest.of(page, size));
+        return taskReads.execute(userId + ":page:" + page + ":" + size,
+                () -> taskRepository.findByUserId(userId, PageRequest.of(page, size)));
     }
 
     public Task updateTask(String id, Task updatedTask) {
-        return taskRepository.findById(id).map(task -> {
-            task.setTitle(updatedTask.getTitle());
-            task.setDescription(updatedTask.getDescription());
-            task.setPriority(updatedTask.getPriority());
-            task.setDeadline(updatedTask.getDeadline());
-            task.setEstimatedHours(updatedTask.getEstimatedHours());
-            task.setStatus(updatedTask.getStatus());
-            task.setUpdatedAt(LocalDateTime.now());
-            Task saved = taskRepository.save(task);
-            log.info("Updated task {}", saved.getId());
-            return saved;
-        }).orElseThrow(() -> new RuntimeException("Task not found"));
+        Update update = new Update()
+                .set("title", updatedTask.getTitle())
+                .set("description", updatedTask.getDescription())
+                .set("priority", updatedTask.getPriority())
+                .set("deadline", updatedTask.getDeadline())
+                .set("estimatedHours", updatedTask.getEstimatedHours())
+                .set("status", updatedTask.getStatus());
+        Task saved = modify(id, updatedTask.getVersion(), update);
+        log.info("Updated task {}", saved.getId());
+        return saved;
+    }
+
+    // Partial update: $set only the fields present in the request
+    public Task patchTask(String id, TaskPatchRequest patch) {
+        Update update = new Update();
+        if (patch.getTitle() != null) update.set("title", patch.getTitle());
+        if (patch.getDescription() != null) update.set("description", patch.getDescription());
+        if (patch.getPriority() != null) update.set("priority", patch.getPriority());
+        if (patch.getStartDate() != null) update.set("startDate", patch.getStartDate());
+        if (patch.getDeadline() != null) update.set("deadline", patch.getDeadline());
+        if (patch.getEstimatedHours() != null) update.set("estimatedHours", patch.getEstimatedHours());
+        if (patch.getStatus() != null) update.set("status", patch.getStatus());
+        return modify(id, patch.getVersion(), update);
+    }
+
+    // Status-only path used by Kanban moves. A column change appends the task to the new column like
+    // createTask; the write is conditional on the status the rank was computed from, so a concurrent
+    // status change cannot leave the task with a rank from the wrong column.
+    public Task updateTaskStatus(String id, String status, Long expectedVersion) {
+        for (int attempt = 1; ; attempt++) {
+            Query read = Query.query(Criteria.where("id").is(id));
+            read.fields().include("userId", "status", "version");
+            Task current = mongoTemplate.findOne(read, Task.class);
+            if (current == null) throw new TaskNotFoundException("Task not found: " + id);
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new OptimisticLockingFailureException("Task " + id + " was modified concurrently (expected version " + expectedVersion + ")");
+            }
+            if (status.equals(current.getStatus())) return modify(id, expectedVersion, new Update().set("status", status));
+
+            Query query = Query.query(Criteria.where("id").is(id).and("status").is(current.getStatus()));
+            Update update = new Update().set("status", status)
+                    .set("rank", RankKeys.after(rankRebalancer.lastRank(current.getUserId(), status)));
+            Task moved = apply(query, expectedVersion, update);
+            if (moved != null) {
+                rankRebalancer.checkLength(moved.getUserId(), moved.getStatus(), moved.getRank());
+                return moved;
+            }
+            if (attempt == MAX_STATUS_ATTEMPTS) {
+                throw new OptimisticLockingFailureException("Task " + id + " changed status concurrently, retry");
+            }
+        }
+    }
+
+    // Kanban column in display order, read straight off the (userId, status, rank) index
+    public List<Task> getColumn(String userId, String status) {
+        return taskReads.execute(userId + ":column:" + status,
+                () -> Collections.unmodifiableList(taskRepository.findByUserIdAndStatusOrderByRankAscIdAsc(userId, status)));
+    }
+
+    // Place a task between two neighbours of the target column; only the moved task is written
+    public Task moveTask(String id, TaskMoveRequest move) {
+        Task prev = move.getPrevId() == null ? null : neighbour(move.getPrevId(), move.getStatus());
+        Task next = move.getNextId() == null ? null : neighbour(move.getNextId(), move.getStatus());
+        String userId = prev != null ? prev.getUserId() : next != null ? next.getUserId() : null;
+        if (prev != null && next != null && !prev.getUserId().equals(next.getUserId())) {
+            throw new BadRequestException("prevId and nextId belong to different users");
+        }
+
+        // Tasks created before ranks existed, or sharing a rank after concurrent appends, get distinct
+        // positions from a rebalance of their column (ties ordered by id, as the column is listed)
+        if (userId != null && (unranked(prev) || unranked(next) || sharesRank(prev) || sharesRank(next))) {
+            rankRebalancer.rebalanceColumn(userId, move.getStatus());
+            prev = prev == null ? null : neighbour(prev.getId(), move.getStatus());
+            next = next == null ? null : neighbour(next.getId(), move.getStatus());
+        }
+
+        String lower = prev == null ? null : prev.getRank();
+        String upper = next == null ? null : next.getRank();
+        if (lower != null && upper != null) {
+            int order = lower.equals(upper) ? prev.getId().compareTo(next.getId()) : lower.compareTo(upper);
+            if (order >= 0) {
+                throw new BadRequestException("prevId must come before nextId in the column");
+            }
+            if (lower.equals(upper)) {
+                throw new OptimisticLockingFailureException("Column " + move.getStatus() + " changed during the move, retry");
+            }
+        }
+
+        Query query = Query.query(Criteria.where("id").is(id));
+        if (userId != null) {
+            query.addCriteria(Criteria.where("userId").is(userId));
+        }
+        Task moved = modify(query, id, move.getVersion(), new Update()
+                .set("status", move.getStatus())
+                .set("rank", RankKeys.between(lower, upper)));
+        rankRebalancer.checkLength(moved.getUserId(), moved.getStatus(), moved.getRank());
+        return moved;
+    }
+
+    private static boolean unranked(Task t) {
+        return t != null && t.getRank() == null;
+    }
+
+    private boolean sharesRank(Task t) {
+        if (t == null || t.getRank() == null) return false;
+        return mongoTemplate.count(Query.query(Criteria.where("userId").is(t.getUserId()).and("status").is(t.getStatus())
+                .and("rank").is(t.getRank())).limit(2), Task.class) > 1;
+    }
+
+    private Task neighbour(String id, String status) {
+        Task t = taskRepository.findById(id).orElseThrow(() -> new TaskNotFoundException("Task not found: " + id));
+        if (!status.equals(t.getStatus())) {
+            throw new BadRequestException("Task " + id + " is not in column " + status);
+        }
+        return t;
+    }
+
+    // Single findAndModify round-trip; expectedVersion (if given) must match the stored version
+    private Task modify(String id, Long expectedVersion, Update update) {
+        return modify(Query.query(Criteria.where("id").is(id)), id, expectedVersion, update);
+    }
+
+    private Task modify(Query query, String id, Long expectedVersion, Update update) {
+        Task modified = apply(query, expectedVersion, update);
+        if (modified == null) {
+            if (expectedVersion != null && taskRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Task " + id + " was modified concurrently (expected version " + expectedVersion + ")");
+            }
+            throw new TaskNotFoundException("Task not found: " + id);
+        }
+        return modified;
+    }
+
+    // The findAndModify itself, null when nothing matched; publishes the change and records a first completion
+    private Task apply(Query query, Long expectedVersion, Update update) {
+        if (expectedVersion != null) {
+            query.addCriteria(Criteria.where("version").is(expectedVersion));
+        }
+        // millisecond precision so the stored completedAt compares equal to now after the round-trip
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Document set = update.getUpdateObject().get("$set", Document.class);
+        boolean completing = set != null && isCompleted(set.get("status"));
+        // $min keeps the first completion time, so re-completing a re-opened task is not counted again
+        if (completing) update.min("completedAt", now);
+        update.set("updatedAt", now).inc("version", 1);
+        Task modified = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Task.class);
+        if (modified == null) return null;
+        publish(modified, TaskChangedEvent.Type.UPDATED);
+        if (completing && now.equals(modified.getCompletedAt())) productivity.recordCompletions(List.of(modified));
+        return modified;
+    }
+
+    private static boolean isCompleted(Object status) {
+        return status instanceof String s && s.equalsIgnoreCase("COMPLETED");
+    }
+
+    // Evicts every cached page of the user, on this node and, through the near cache, on the others
+    @EventListener
+    @CacheEvict(value = "tasks", key = "#event.userId")
+    public void onTaskChanged(TaskChangedEvent event) {
+        // cache eviction handled by the annotation; reads already in flight may predate this write
+        taskReads.invalidate(event.getUserId());
+    }
+
+    private void publish(Task task, TaskChangedEvent.Type type) {
+        eventPublisher.publishEvent(new TaskChangedEvent(task.getUserId(), task.getId(), type, task));
     }
 
     public void deleteTask(String id) {
-    taskRepository.deleteById(id);
+    Query byId = Query.query(Criteria.where("id").is(id));
+    Task removed = mongoTemplate.findAndRemove(byId, Task.class);
+    // archived tasks can be deleted from history; this also drops a copy the archiver is making right now
+    Task archived = mongoTemplate.findAndRemove(byId, Task.class, TaskArchiver.ARCHIVE);
+    if (removed == null) removed = archived;
     log.info("Deleted task {}", id);
+    if (removed != null) publish(removed, TaskChangedEvent.Type.DELETED);
     }
 
     // 1) Overdue task detection
     public List<Task> findOverdueTasksByUserId(String userId) {
         LocalDateTime now = LocalDateTime.now();
-        return taskRepository.findByUserId(userId).stream()
+        return findByUser(userId).stream()
                 .filter(t -> t.getDeadline() != null)
                 .filter(t -> !"COMPLETED".equalsIgnoreCase(t.getStatus()))
                 .filter(t -> t.getDeadline().isBefore(now))
@@ -89,9 +307,7 @@ public class TaskService {
             if (t.getDeadline() == null) continue;
             if ("COMPLETED".equalsIgnoreCase(t.getStatus())) continue;
             if (t.getDeadline().isBefore(now)) {
-                t.setDeadline(t.getDeadline().plusDays(1));
-                t.setUpdatedAt(LocalDateTime.now());
-                rolled.add(taskRepository.save(t));
+                rolled.add(modify(t.getId(), null, new Update().set("deadline", t.getDeadline().plusDays(1))));
             }
         }
 
@@ -100,7 +316,7 @@ public class TaskService {
 
     // 3) Priority-based sorting (HIGH > MEDIUM > LOW)
     public List<Task> getTasksByUserIdSortedByPriority(String userId) {
-        return taskRepository.findByUserId(userId).stream()
+        return findByUser(userId).stream()
                 .sorted((a, b) -> priorityValue(b.getPriority()) - priorityValue(a.getPriority()))
                 .collect(Collectors.toList());
     }
@@ -117,7 +333,10 @@ public class TaskService {
 
     // 4) Search and filtering
     public List<Task> searchTasks(String userId, String q, String status, String priority) {
-        return taskRepository.findByUserId(userId).stream()
+        if (q != null && !q.isEmpty() && searchIndex.isEnabled()) {
+            return searchIndexed(userId, q, status, priority);
+        }
+        return findByUser(userId).stream()
                 .filter(t -> {
                     if (status != null && !status.isEmpty()) {
                         if (t.getStatus() == null || !t.getStatus().equalsIgnoreCase(status)) return false;
@@ -136,35 +355,50 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    // Ranked ids from the in-memory index, hydrated by id and filtered in rank order
+    private List<Task> searchIndexed(String userId, String q, String status, String priority) {
+        List<String> ids = searchIndex.search(userId, q);
+        if (ids.isEmpty()) return List.of();
+        Map<String, Task> byId = new HashMap<>();
+        taskRepository.findAllById(ids).forEach(t -> byId.put(t.getId(), t));
+        return ids.stream()
+                .map(byId::get)
+                .filter(t -> t != null && userId.equals(t.getUserId()))
+                .filter(t -> status == null || status.isEmpty() || status.equalsIgnoreCase(t.getStatus()))
+                .filter(t -> priority == null || priority.isEmpty() || priority.equalsIgnoreCase(t.getPriority()))
+                .collect(Collectors.toList());
+    }
+
     // 5) Bulk mark complete
     public int bulkMarkComplete(List<String> ids) {
-        int count = 0;
-        for (String id : ids) {
-            Optional<Task> maybe = taskRepository.findById(id);
-            if (maybe.isPresent()) {
-                Task t = maybe.get();
-                t.setStatus("COMPLETED");
-                t.setUpdatedAt(LocalDateTime.now());
-                taskRepository.save(t);
-                count++;
-            }
-        }
-        return count;
+        Query query = Query.query(Criteria.where("id").in(ids));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Update update = new Update().set("status", "COMPLETED").min("completedAt", now).set("updatedAt", now).inc("version", 1);
+        List<String> userIds = mongoTemplate.findDistinct(query, "userId", Task.class, String.class);
+        int matched = (int) mongoTemplate.updateMulti(query, update, Task.class).getMatchedCount();
+        userIds.forEach(userId -> eventPublisher.publishEvent(new TaskChangedEvent(userId, null, TaskChangedEvent.Type.UPDATED, null)));
+        // tasks whose completedAt is this write's timestamp were completed by it, not before
+        Query transitioned = Query.query(Criteria.where("id").in(ids).and("completedAt").is(now));
+        transitioned.fields().include("userId", "deadline", "estimatedHours", "completedAt");
+        productivity.recordCompletions(mongoTemplate.find(transitioned, Task.class));
+        return matched;
     }
 
     // 6) Task statistics
-    public Map<String, Object> taskStatistics(String userId) {
-        List<Task> all = taskRepository.findByUserId(userId);
+    // includeArchived adds the archived (all COMPLETED) tasks to the lifetime totals at the cost of a count on tasks_archive
+    public Map<String, Object> taskStatistics(String userId, boolean includeArchived) {
+        List<Task> all = findByUser(userId);
         long total = all.size();
         long completed = all.stream().filter(t -> "COMPLETED".equalsIgnoreCase(t.getStatus())).count();
         long inProgress = all.stream().filter(t -> "IN_PROGRESS".equalsIgnoreCase(t.getStatus())).count();
         long toDo = all.stream().filter(t -> "TO_DO".equalsIgnoreCase(t.getStatus())).count();
         long overdue = all.stream().filter(t -> t.getDeadline() != null && t.getDeadline().isBefore(LocalDateTime.now()) && !"COMPLETED".equalsIgnoreCase(t.getStatus())).count();
         double avgEst = all.stream().mapToInt(Task::getEstimatedHours).average().orElse(0.0);
+        long archived = includeArchived ? mongoTemplate.count(Query.query(Criteria.where("userId").is(userId)), TaskArchiver.ARCHIVE) : 0;
 
         return Map.of(
-                "total", total,
-                "completed", completed,
+                "total", total + archived,
+                "completed", completed + archived,
                 "inProgress", inProgress,
                 "toDo", toDo,
                 "overdue", overdue,
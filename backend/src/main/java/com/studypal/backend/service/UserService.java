@@ -1,13 +1,17 @@
 package com.studypal.backend.service;
 
+import com.studypal.backend.exception.UserAlreadyExistsException;
 import com.studypal.backend.model.User;
 import com.studypal.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 @Service
+@Slf4j
 public class UserService {
 
     private final UserRepository userRepository;
@@ -19,12 +23,13 @@ public class UserService {
 
     // Create or save a new user
     public User saveUser(User user) {
-        return userRepository.save(user);
+        user.setEmail(User.normalizeEmail(user.getEmail()));
+        return save(user);
     }
 
     // Find a user by email
     public Optional<User> findUserByEmail(String email) {
-        return Optional.ofNullable(userRepository.findByEmail(email));
+        return Optional.ofNullable(userRepository.findByEmail(User.normalizeEmail(email)));
     }
 
     // Find a user by ID
@@ -49,7 +54,8 @@ public class UserService {
             existingUser.setName(updatedUser.getName());
         }
         if (updatedUser.getEmail() != null) {
-            existingUser.setEmail(updatedUser.getEmail());
+            // taken addresses are rejected by the unique email index on save
+            existingUser.setEmail(User.normalizeEmail(updatedUser.getEmail()));
         }
         // Handle profile picture - explicitly set even if null to clear existing picture
         existingUser.setProfilePicture(updatedUser.getProfilePicture());
@@ -57,8 +63,16 @@ public class UserService {
         // Mark profile as completed when user updates their profile
         existingUser.setProfileCompleted(true);
         
-        User savedUser = userRepository.save(existingUser);
-        System.out.println("Updated user profile picture: " + (savedUser.getProfilePicture() != null ? "Present" : "Null"));
+        User savedUser = save(existingUser);
+        log.debug("Updated user {} (profile picture {})", id, savedUser.getProfilePicture() != null ? "present" : "cleared");
         return savedUser;
     }
-}
\ No newline at end of file
+
+    private User save(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new UserAlreadyExistsException("User already exists with email: " + user.getEmail());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.studypal.backend.tracing;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+// The sync driver reports commands on the calling thread, so repository and MongoTemplate time
+// lands in the request's trace as the "db" phase
+public class MongoCommandTimer implements CommandListener {
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) trace.add(RequestTrace.Phase.DB, event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) trace.add(RequestTrace.Phase.DB, event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,140 @@
+package com.studypal.backend.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Appends sampled traces to a local file as OTLP/JSON (one ExportTraceServiceRequest per line),
+// which an OpenTelemetry collector's filelog/otlpjsonfile receiver can ship on.
+// Disabled unless tracing.export.file is set; a full queue drops traces rather than slowing requests.
+@Component
+@Slf4j
+public class OtlpFileExporter implements DisposableBean {
+
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+
+    private final String file;
+    private final double sampleRate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<TraceSnapshot> queue = new ArrayBlockingQueue<>(1024);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public OtlpFileExporter(@Value("${tracing.export.file:}") String file,
+                            @Value("${tracing.export.sample-rate:0.01}") double sampleRate) {
+        this.file = file;
+        this.sampleRate = file.isBlank() ? 0 : sampleRate;
+        if (this.sampleRate > 0) {
+            this.writer = new Thread(this::drain, "trace-exporter");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public boolean sample() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    void export(TraceSnapshot snapshot) {
+        queue.offer(snapshot);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (writer != null) writer.interrupt();
+    }
+
+    private void drain() {
+        try (BufferedWriter out = Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (running) {
+                TraceSnapshot snapshot = queue.poll(1, TimeUnit.SECONDS);
+                if (snapshot == null) continue;
+                out.write(objectMapper.writeValueAsString(toOtlp(snapshot)));
+                out.newLine();
+                if (queue.isEmpty()) out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Trace export to {} stopped: {}", file, e.getMessage());
+        }
+    }
+
+    Map<String, Object> toOtlp(TraceSnapshot s) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String traceId = hex(random, 16);
+        String rootId = hex(random, 8);
+        long base = s.getStartEpochMillis() * 1_000_000L;
+
+        List<Map<String, Object>> spans = new ArrayList<>();
+        Map<String, Object> root = span(traceId, rootId, null, s.getMethod() + " " + s.getPath(), SPAN_KIND_SERVER,
+                base, base + s.getTotalNanos());
+        root.put("attributes", List.of(
+                attribute("http.request.method", Map.of("stringValue", s.getMethod())),
+                attribute("url.path", Map.of("stringValue", s.getPath())),
+                attribute("http.response.status_code", Map.of("intValue", String.valueOf(s.getStatus())))));
+        spans.add(root);
+
+        RequestTrace.Phase[] phases = RequestTrace.phases();
+        for (int i = 0; i < phases.length; i++) {
+            if (s.getPhaseCounts()[i] == 0) continue;
+            long start = base + s.getPhaseOffsets()[i];
+            Map<String, Object> child = span(traceId, hex(random, 8), rootId, phases[i].metric, SPAN_KIND_INTERNAL,
+                    start, start + s.getPhaseDurations()[i]);
+            child.put("attributes", List.of(attribute("studypal.phase.count", Map.of("intValue", String.valueOf(s.getPhaseCounts()[i])))));
+            spans.add(child);
+        }
+
+        Map<String, Object> resource = Map.of("attributes",
+                List.of(attribute("service.name", Map.of("stringValue", "studypal-backend"))));
+        Map<String, Object> scopeSpans = Map.of("scope", Map.of("name", "com.studypal.backend.tracing"), "spans", spans);
+        return Map.of("resourceSpans", List.of(Map.of("resource", resource, "scopeSpans", List.of(scopeSpans))));
+    }
+
+    private static Map<String, Object> span(String traceId, String spanId, String parentId, String name, int kind,
+                                            long startNanos, long endNanos) {
+        Map<String, Object> span = new LinkedHashMap<>();
+        span.put("traceId", traceId);
+        span.put("spanId", spanId);
+        if (parentId != null) span.put("parentSpanId", parentId);
+        span.put("name", name);
+        span.put("kind", kind);
+        // OTLP/JSON encodes 64-bit integers as strings
+        span.put("startTimeUnixNano", String.valueOf(startNanos));
+        span.put("endTimeUnixNano", String.valueOf(endNanos));
+        return span;
+    }
+
+    private static Map<String, Object> attribute(String key, Map<String, Object> value) {
+        return Map.of("key", key, "value", value);
+    }
+
+    private static String hex(ThreadLocalRandom random, int bytes) {
+        byte[] b = new byte[bytes];
+        random.nextBytes(b);
+        return HexFormat.of().formatHex(b);
+    }
+}
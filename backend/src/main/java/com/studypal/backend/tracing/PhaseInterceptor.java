@@ -0,0 +1,22 @@
+package com.studypal.backend.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Marks a phase boundary; registered first (interceptor phase) and last (handler phase) in WebMvcConfig
+public class PhaseInterceptor implements HandlerInterceptor {
+
+    private final RequestTrace.Phase phase;
+
+    public PhaseInterceptor(RequestTrace.Phase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) trace.enter(phase);
+        return true;
+    }
+}
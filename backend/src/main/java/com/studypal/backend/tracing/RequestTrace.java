@@ -0,0 +1,154 @@
+package com.studypal.backend.tracing;
+
+// Per-request phase timings. One instance per servlet thread is reset and reused, so a traced
+// request allocates nothing but its Server-Timing header string.
+public final class RequestTrace {
+
+    // FILTER, INTERCEPTOR, HANDLER and SERIALIZATION follow one another; AUTH is nested in FILTER and
+    // DB sums every Mongo command of the request
+    public enum Phase {
+        FILTER("filter"), AUTH("auth"), INTERCEPTOR("interceptor"), HANDLER("handler"), DB("db"), SERIALIZATION("ser");
+
+        final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTrace> POOL = ThreadLocal.withInitial(RequestTrace::new);
+
+    private final long[] start = new long[PHASES.length];
+    private final long[] duration = new long[PHASES.length];
+    private final int[] count = new int[PHASES.length];
+    private final StringBuilder header = new StringBuilder(160);
+
+    private boolean active;
+    private boolean headerWritten;
+    private long startNanos;
+    private long startEpochMillis;
+    private long endNanos;
+    private Phase open;
+
+    private RequestTrace() {
+    }
+
+    public static RequestTrace begin() {
+        RequestTrace trace = POOL.get();
+        trace.reset();
+        trace.active = true;
+        trace.startNanos = System.nanoTime();
+        trace.startEpochMillis = System.currentTimeMillis();
+        return trace;
+    }
+
+    // The trace bound to this thread, or null when the request is not traced
+    public static RequestTrace current() {
+        RequestTrace trace = POOL.get();
+        return trace.active ? trace : null;
+    }
+
+    // Null-safe helpers for call sites that may run outside a traced request
+    public static void startNested(Phase phase) {
+        RequestTrace trace = current();
+        if (trace != null) trace.start(phase);
+    }
+
+    public static void stopNested(Phase phase) {
+        RequestTrace trace = current();
+        if (trace != null) trace.stop(phase);
+    }
+
+    // Closes the open sequential phase and opens the next one (null just closes)
+    public void enter(Phase phase) {
+        long now = System.nanoTime();
+        if (open != null) record(open, start[open.ordinal()], now);
+        open = phase;
+        if (phase != null) start[phase.ordinal()] = now;
+    }
+
+    public void start(Phase phase) {
+        start[phase.ordinal()] = System.nanoTime();
+    }
+
+    public void stop(Phase phase) {
+        record(phase, start[phase.ordinal()], System.nanoTime());
+    }
+
+    // Adds an externally measured interval that just ended, e.g. a Mongo command
+    public void add(Phase phase, long nanos) {
+        int i = phase.ordinal();
+        if (count[i] == 0) start[i] = System.nanoTime() - nanos;
+        duration[i] += nanos;
+        count[i]++;
+    }
+
+    public void end() {
+        enter(null);
+        endNanos = System.nanoTime();
+        active = false;
+    }
+
+    // e.g. filter;dur=0.41, auth;dur=0.12, handler;dur=3.80, db;dur=2.95;desc="2", total;dur=4.39
+    public String serverTiming() {
+        StringBuilder sb = header;
+        sb.setLength(0);
+        for (Phase phase : PHASES) {
+            int i = phase.ordinal();
+            if (count[i] == 0) continue;
+            sb.append(phase.metric).append(";dur=");
+            appendMillis(sb, duration[i]);
+            if (phase == Phase.DB) sb.append(";desc=\"").append(count[i]).append('"');
+            sb.append(", ");
+        }
+        sb.append("total;dur=");
+        appendMillis(sb, (active ? System.nanoTime() : endNanos) - startNanos);
+        return sb.toString();
+    }
+
+    void markHeaderWritten() {
+        headerWritten = true;
+    }
+
+    boolean isHeaderWritten() {
+        return headerWritten;
+    }
+
+    // Immutable copy for the exporter thread; only sampled requests pay for it
+    TraceSnapshot snapshot(String method, String path, int status) {
+        long[] starts = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) starts[i] = start[i] - startNanos;
+        return new TraceSnapshot(method, path, status, startEpochMillis, endNanos - startNanos,
+                starts, duration.clone(), count.clone());
+    }
+
+    static Phase[] phases() {
+        return PHASES;
+    }
+
+    private void record(Phase phase, long from, long to) {
+        int i = phase.ordinal();
+        duration[i] += to - from;
+        count[i]++;
+    }
+
+    private void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            start[i] = 0;
+            duration[i] = 0;
+            count[i] = 0;
+        }
+        open = null;
+        headerWritten = false;
+        endNanos = 0;
+    }
+
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        sb.append(hundredths / 100).append('.');
+        long frac = hundredths % 100;
+        if (frac < 10) sb.append('0');
+        sb.append(frac);
+    }
+}
@@ -0,0 +1,18 @@
+package com.studypal.backend.tracing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Copy of a finished sampled trace, handed to the exporter thread; offsets are relative to the request start
+@Getter
+@AllArgsConstructor
+class TraceSnapshot {
+    private final String method;
+    private final String path;
+    private final int status;
+    private final long startEpochMillis;
+    private final long totalNanos;
+    private final long[] phaseOffsets;
+    private final long[] phaseDurations;
+    private final int[] phaseCounts;
+}
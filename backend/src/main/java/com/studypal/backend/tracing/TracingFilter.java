@@ -0,0 +1,54 @@
+package com.studypal.backend.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Outermost filter for /api/**: opens the trace so the security filters, interceptors, handler,
+// Mongo commands and serialization can all report into it
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final OtlpFileExporter exporter;
+    private final boolean enabled;
+
+    @Autowired
+    public TracingFilter(OtlpFileExporter exporter, @Value("${tracing.enabled:true}") boolean enabled) {
+        this.exporter = exporter;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.begin();
+        trace.enter(RequestTrace.Phase.FILTER);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            trace.end();
+            // JSON bodies carry the header from TracingJacksonConverter; this covers empty and rejected responses
+            if (!trace.isHeaderWritten() && !response.isCommitted()) response.setHeader(HEADER, trace.serverTiming());
+            if (exporter.sample()) {
+                exporter.export(trace.snapshot(request.getMethod(), request.getRequestURI(), response.getStatus()));
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.studypal.backend.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Times Jackson serialization. Headers are committed with the first body byte, so Server-Timing is set
+// before the body is streamed out: it covers everything up to serialization, whose own duration is
+// recorded for the exported trace only.
+public class TracingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TracingJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        trace.enter(RequestTrace.Phase.SERIALIZATION); // closes the handler phase before the header is built
+        outputMessage.getHeaders().set(TracingFilter.HEADER, trace.serverTiming());
+        trace.markHeaderWritten();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            trace.enter(null);
+        }
+    }
+}
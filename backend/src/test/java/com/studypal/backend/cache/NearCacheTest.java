@@ -0,0 +1,147 @@
+package com.studypal.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.studypal.backend.model.Task;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two "nodes" sharing the in-process bus and shared tier
+class NearCacheTest {
+
+    private final List<InvalidationMessage> sent = new ArrayList<>();
+    private InMemorySharedCacheTier shared;
+    private SimpleMeterRegistry registryB;
+    private NearCacheManager nodeA;
+    private NearCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryInvalidationBus bus = new InMemoryInvalidationBus();
+        bus.subscribe(sent::add);
+        shared = new InMemorySharedCacheTier();
+        registryB = new SimpleMeterRegistry();
+        nodeA = new NearCacheManager(Caffeine.newBuilder(), shared, bus, new SimpleMeterRegistry(), 0);
+        nodeB = new NearCacheManager(Caffeine.newBuilder(), shared, bus, registryB, 0);
+    }
+
+    @Test
+    void sharedTierServesOtherNodes() {
+        nodeA.getCache("tasks").put("u1:0:10", "page");
+
+        assertEquals("page", nodeB.getCache("tasks").get("u1:0:10", String.class));
+    }
+
+    @Test
+    void cachedPagesPassTheSharedTierAllowList() {
+        Task task = new Task();
+        task.setId("t1");
+        task.setTitle("Essay");
+        nodeA.getCache("tasks").put("u1:0:10", new PageImpl<>(List.of(task), PageRequest.of(0, 10), 1));
+
+        Page<?> page = nodeB.getCache("tasks").get("u1:0:10", Page.class);
+
+        assertNotNull(page);
+        assertEquals("Essay", ((Task) page.getContent().get(0)).getTitle());
+    }
+
+    @Test
+    void evictionOnOneNodeInvalidatesTheUserScopeEverywhere() {
+        Cache a = nodeA.getCache("tasks");
+        Cache b = nodeB.getCache("tasks");
+        a.put("u1:0:10", "u1 page 0");
+        b.get("u1:0:10", String.class); // warm B's local tier
+        b.put("u1:1:10", "u1 page 1");
+        b.put("u2:0:10", "u2 page 0");
+
+        a.evict("u1");
+        assertNull(a.get("u1:0:10"));
+        assertEquals("u1 page 1", b.get("u1:1:10", String.class)); // B still holds it locally until the broadcast
+
+        nodeA.flush();
+
+        assertNull(b.get("u1:0:10"));
+        assertNull(b.get("u1:1:10"));
+        assertEquals("u2 page 0", b.get("u2:0:10", String.class));
+        assertEquals(1, registryB.timer("cache.invalidation.lag").count());
+    }
+
+    @Test
+    void burstOfEvictionsForOneUserIsCoalescedIntoOneScope() {
+        Cache a = nodeA.getCache("tasks");
+        for (int i = 0; i < 100; i++) {
+            a.evict("u1");
+        }
+        nodeA.getCache("dashboard").evict("u1");
+
+        nodeA.flush();
+
+        assertEquals(1, sent.size());
+        assertEquals(2, sent.get(0).getScopes().size());
+    }
+
+    @Test
+    void loaderThatRacesAnEvictionDoesNotCacheItsValue() {
+        Cache a = nodeA.getCache("tasks");
+
+        String value = a.get("u1:0:10", () -> {
+            a.evict("u1"); // a write lands while the page is being read
+            return "stale page";
+        });
+
+        assertEquals("stale page", value);
+        assertNull(a.get("u1:0:10"));
+        assertNull(shared.get("tasks", "u1:0:10"));
+        assertEquals("fresh page", a.get("u1:0:10", () -> "fresh page"));
+        assertEquals("fresh page", nodeB.getCache("tasks").get("u1:0:10", String.class));
+    }
+
+    @Test
+    void evictionLeavesOtherUsersLocalEntriesAlone() {
+        Cache a = nodeA.getCache("tasks");
+        a.put("u1:0:10", "u1 page");
+        a.put("u10:0:10", "u10 page");
+        shared.clear("tasks"); // only the local tier is left to answer
+
+        a.evict("u1");
+
+        assertNull(a.get("u1:0:10"));
+        assertEquals("u10 page", a.get("u10:0:10", String.class));
+    }
+
+    @Test
+    void evictedUsersStayEvictedOnceTheirGenerationIsNoLongerTracked() {
+        NearCache cache = new NearCache("tasks", Caffeine.newBuilder().build(), null, null, 2);
+        cache.put("u1:0:10", "u1 page");
+        cache.evictLocal("u1");
+        for (int i = 2; i < 100; i++) cache.evictLocal("u" + i);
+
+        assertTrue(cache.trackedUsers() <= 2, "tracked " + cache.trackedUsers());
+        assertNull(cache.get("u1:0:10"));
+    }
+
+    @Test
+    void sharedEntryOfAnUnexpectedTypeIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(URI.create("http://example.com"));
+        }
+        shared.put("tasks", "u1:0:10", "u1", bytes.toByteArray(), shared.generation("tasks", "u1"));
+
+        assertNull(nodeA.getCache("tasks").get("u1:0:10"));
+        assertNull(shared.get("tasks", "u1:0:10"));
+    }
+}
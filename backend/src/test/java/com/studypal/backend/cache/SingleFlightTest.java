@@ -0,0 +1,120 @@
+package com.studypal.backend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService pool = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight flight = new SingleFlight("tasks", 5_000, registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(pool.submit(() -> flight.execute("u1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "tasks-of-u1";
+            })));
+        }
+        waitUntil(() -> registry.counter("singleflight.executed", "name", "tasks").count() == 1
+                && flight.inFlightCount() == 1);
+        Thread.sleep(50); // let the followers attach
+        release.countDown();
+
+        for (Future<String> r : results) assertEquals("tasks-of-u1", r.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(15, registry.counter("singleflight.coalesced", "name", "tasks").count());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void writeInvalidatesInFlightLoadForLaterCallers() throws Exception {
+        SingleFlight flight = new SingleFlight("tasks", 5_000, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = pool.submit(() -> flight.execute("u1:column:TO_DO", () -> {
+            await(release);
+            return "stale";
+        }));
+        waitUntil(() -> flight.inFlightCount() == 1);
+
+        flight.invalidate("u1");
+        String after = flight.execute("u1:column:TO_DO", () -> "fresh");
+        release.countDown();
+
+        assertEquals("fresh", after);
+        assertEquals("stale", before.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void followerRunsItsOwnLoadAfterTheTimeout() throws Exception {
+        SingleFlight flight = new SingleFlight("tasks", 50, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stuck = pool.submit(() -> flight.execute("u1", () -> {
+            await(release);
+            return "slow";
+        }));
+        waitUntil(() -> flight.inFlightCount() == 1);
+
+        assertEquals("own", flight.execute("u1", () -> "own"));
+        assertEquals(1, registry.counter("singleflight.timeouts", "name", "tasks").count());
+        release.countDown();
+        assertEquals("slow", stuck.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void leaderFailureReachesFollowers() throws Exception {
+        SingleFlight flight = new SingleFlight("tasks", 5_000, registry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = pool.submit(() -> flight.execute("u1", () -> {
+            await(release);
+            throw new IllegalStateException("mongo down");
+        }));
+        waitUntil(() -> flight.inFlightCount() == 1);
+        Future<String> follower = pool.submit(() -> flight.execute("u1", () -> "unused"));
+        Thread.sleep(50);
+        release.countDown();
+
+        Exception e = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("condition not reached");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.studypal.backend.config;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserEmailIndexTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final IndexOperations indexOps = mock(IndexOperations.class);
+
+    @Test
+    void indexIsUniqueAndIgnoresCase() {
+        assertEquals(new Document("email", 1), UserEmailIndex.DEFINITION.getIndexKeys());
+        Document options = UserEmailIndex.DEFINITION.getIndexOptions();
+        assertEquals(Boolean.TRUE, options.get("unique"));
+        Document collation = options.get("collation", Document.class);
+        assertEquals("en", collation.get("locale"));
+        assertEquals(2, collation.get("strength"));
+    }
+
+    @Test
+    void indexIsBuiltWhenEmailsAreDistinct() {
+        duplicates(List.of());
+
+        new UserEmailIndex(mongoTemplate, "async").ensure();
+
+        verify(indexOps).ensureIndex(UserEmailIndex.DEFINITION);
+    }
+
+    @Test
+    void startupFailsOnExistingCaseVariantAccounts() {
+        duplicates(List.of(new Document("_id", "alice@example.com").append("count", 2).append("accounts", List.of("u1", "u2"))));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> new UserEmailIndex(mongoTemplate, "sync").ensure());
+
+        assertTrue(e.getMessage().contains("1 emails belong to more than one account"), e.getMessage());
+        verify(indexOps, never()).ensureIndex(any());
+    }
+
+    @Test
+    void existingIndexSkipsTheDuplicateScan() {
+        when(mongoTemplate.indexOps("users")).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of(new IndexInfo(
+                List.of(IndexField.create("email", Sort.Direction.ASC)), "email_1", true, false, "en")));
+
+        new UserEmailIndex(mongoTemplate, "sync").ensure();
+
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), any());
+        verify(indexOps, never()).ensureIndex(any());
+    }
+
+    @Test
+    void verifyModeFailsWhenTheIndexIsMissing() {
+        when(mongoTemplate.indexOps("users")).thenReturn(indexOps);
+        when(indexOps.getIndexInfo()).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> new UserEmailIndex(mongoTemplate, "verify").ensure());
+        verify(indexOps, never()).ensureIndex(any());
+    }
+
+    private void duplicates(List<Document> groups) {
+        when(mongoTemplate.indexOps("users")).thenReturn(indexOps);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("users"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(groups, new Document()));
+    }
+}
@@ -0,0 +1,152 @@
+package com.studypal.backend.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRowReaderTest {
+
+    @Test
+    void csvHandlesQuotesAliasesAndBadRows() throws IOException {
+        String csv = "\uFEFFName,Due Date,Hours,Notes\r\n"
+                + "Essay,2025-03-01,2.5,\"intro, body\nand \"\"conclusion\"\"\"\r\n"
+                + "\r\n"
+                + "Lab,not-a-date,1,\n"
+                + "Quiz,2025-03-02 09:30,,\n";
+        CsvTaskReader reader = new CsvTaskReader(new StringReader(csv));
+
+        ImportRow essay = reader.next();
+        assertEquals(2, essay.getLine());
+        assertEquals("Essay", essay.getTask().getTitle());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), essay.getTask().getDeadline());
+        assertEquals(3, essay.getTask().getEstimatedHours());
+        assertEquals("intro, body\nand \"conclusion\"", essay.getTask().getDescription());
+
+        ImportRow lab = reader.next();
+        assertEquals(5, lab.getLine());
+        assertNull(lab.getTask());
+        assertNotNull(lab.getError());
+
+        ImportRow quiz = reader.next();
+        assertEquals(LocalDateTime.of(2025, 3, 2, 9, 30), quiz.getTask().getDeadline());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvReadsTheSourceCompletionTime() throws IOException {
+        String csv = "title,status,Completed On\n"
+                + "Essay,completed,2025-02-20 18:45\n"
+                + "Lab,completed,\n";
+        CsvTaskReader reader = new CsvTaskReader(new StringReader(csv));
+
+        assertEquals(LocalDateTime.of(2025, 2, 20, 18, 45), reader.next().getTask().getCompletedAt());
+        assertNull(reader.next().getTask().getCompletedAt());
+    }
+
+    @Test
+    void icsReadsEventsAndTodosWithFoldedLines() throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Lecture\\, week 1\r\n"
+                + "DESCRIPTION:Room 4\r\n"
+                + " B\\nbring notes\r\n"
+                + "DTSTART:20250301T090000Z\r\n"
+                + "DTEND:20250301T103000Z\r\n"
+                + "BEGIN:VALARM\r\n"
+                + "DESCRIPTION:ignored\r\n"
+                + "END:VALARM\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VTODO\r\n"
+                + "SUMMARY:Submit report\r\n"
+                + "DUE;VALUE=DATE:20250305\r\n"
+                + "PRIORITY:1\r\n"
+                + "STATUS:COMPLETED\r\n"
+                + "COMPLETED:20250304T160000Z\r\n"
+                + "END:VTODO\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:Broken\r\n"
+                + "DTSTART:2025-03-01\r\n"
+                + "END:VEVENT\r\n"
+                + "END:VCALENDAR\r\n";
+        IcsTaskReader reader = new IcsTaskReader(new StringReader(ics));
+
+        ImportRow lecture = reader.next();
+        assertEquals(2, lecture.getLine());
+        assertEquals("Lecture, week 1", lecture.getTask().getTitle());
+        assertEquals("Room 4B\nbring notes", lecture.getTask().getDescription());
+        LocalDateTime end = LocalDateTime.of(2025, 3, 1, 10, 30).atOffset(ZoneOffset.UTC)
+                .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        assertEquals(end, lecture.getTask().getDeadline());
+        assertEquals(2, lecture.getTask().getEstimatedHours());
+
+        ImportRow todo = reader.next();
+        assertEquals("Submit report", todo.getTask().getTitle());
+        assertEquals(LocalDateTime.of(2025, 3, 5, 0, 0), todo.getTask().getDeadline());
+        assertEquals("HIGH", todo.getTask().getPriority());
+        assertEquals("COMPLETED", todo.getTask().getStatus());
+        assertEquals(LocalDateTime.of(2025, 3, 4, 16, 0).atOffset(ZoneOffset.UTC)
+                .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(), todo.getTask().getCompletedAt());
+
+        ImportRow broken = reader.next();
+        assertEquals(19, broken.getLine());
+        assertNotNull(broken.getError());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void oversizedRecordsAreRejectedWithoutBufferingThem() throws IOException {
+        // a single 10 MB field must not be held in memory, and the rows after it still parse
+        CsvTaskReader reader = new CsvTaskReader(repeating("title,description\n\"x", 'a', 10_000_000, "\"\nNext,ok\n"));
+        ImportRow big = reader.next();
+        assertNull(big.getTask());
+        assertTrue(big.getError().contains("longer than"));
+        assertEquals("Next", reader.next().getTask().getTitle());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void lineOfOnlyCommasCountsItsSeparators() throws IOException {
+        // 10 million empty fields would otherwise be collected one list entry at a time
+        CsvTaskReader reader = new CsvTaskReader(repeating("title,description\n", ',', 10_000_000, "\nNext,ok\n"));
+        ImportRow commas = reader.next();
+        assertEquals(2, commas.getLine());
+        assertNull(commas.getTask());
+        assertTrue(commas.getError().contains("longer than"));
+        ImportRow next = reader.next();
+        assertEquals(3, next.getLine());
+        assertEquals("Next", next.getTask().getTitle());
+        assertNull(reader.next());
+    }
+
+    // head, then count copies of body, then tail, generated on the fly
+    private static Reader repeating(String head, char body, long count, String tail) {
+        return new Reader() {
+            private final long total = head.length() + count + tail.length();
+            private long pos;
+
+            @Override
+            public int read(char[] buf, int off, int len) {
+                if (pos >= total) return -1;
+                int n = 0;
+                while (n < len && pos < total) {
+                    buf[off + n++] = pos < head.length() ? head.charAt((int) pos)
+                            : pos < head.length() + count ? body
+                            : tail.charAt((int) (pos - head.length() - count));
+                    pos++;
+                }
+                return n;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
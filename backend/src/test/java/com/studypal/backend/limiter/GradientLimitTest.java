@@ -0,0 +1,70 @@
+package com.studypal.backend.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+        GradientLimit limit = new GradientLimit(20, 4, 200, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 200; i++) limit.onSample(10 * MS, limit.getLimit(), false);
+        int grown = limit.getLimit();
+        assertTrue(grown > 20, "limit should grow at steady latency, was " + grown);
+
+        // the database slows down fivefold: the limit must come down well below where it was
+        for (int i = 0; i < 50; i++) limit.onSample(50 * MS, limit.getLimit(), false);
+        assertTrue(limit.getLimit() < grown / 2, "limit should shrink under rising latency, was " + limit.getLimit());
+
+        // and recover once latency is back to normal
+        int low = limit.getLimit();
+        for (int i = 0; i < 500; i++) limit.onSample(10 * MS, limit.getLimit(), false);
+        assertTrue(limit.getLimit() > low);
+    }
+
+    @Test
+    void idleTrafficDoesNotRaiseTheLimitAndDropsCutIt() {
+        GradientLimit limit = new GradientLimit(40, 4, 200, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 200; i++) limit.onSample(10 * MS, 2, false);
+        assertEquals(40, limit.getLimit());
+
+        limit.onSample(0, 40, true);
+        assertEquals(36, limit.getLimit());
+        for (int i = 0; i < 100; i++) limit.onSample(0, 40, true);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void bulkWorkIsShedBeforeReadsAndAuth() {
+        // limit pinned at 10: bulk may hold 5, writes 9, reads and auth all 10
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new SimpleMeterRegistry(), 10, 10, 10, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 5; i++) assertTrue(limiter.tryAcquire(RequestPriority.BULK));
+        assertFalse(limiter.tryAcquire(RequestPriority.BULK));
+        for (int i = 0; i < 4; i++) assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+        assertFalse(limiter.tryAcquire(RequestPriority.CRITICAL));
+
+        limiter.release(MS, false, true);
+        assertEquals(9, limiter.getInflight());
+        assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+    }
+
+    @Test
+    void classifiesRequests() {
+        assertEquals(RequestPriority.CRITICAL, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("POST", "/api/auth/login")));
+        assertEquals(RequestPriority.CRITICAL, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/api/tasks/user/u1")));
+        assertEquals(RequestPriority.NORMAL, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("PUT", "/api/tasks/t1/move")));
+        assertEquals(RequestPriority.BULK, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("POST", "/api/tasks/import")));
+        assertEquals(RequestPriority.BULK, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("POST", "/api/tasks/user/u1/rollover")));
+        assertEquals(RequestPriority.BULK, ConcurrencyLimitFilter.classify(new MockHttpServletRequest("GET", "/api/tasks/user/u1/history")));
+        MockHttpServletRequest archived = new MockHttpServletRequest("GET", "/api/tasks/user/u1");
+        archived.setParameter("includeArchived", "true");
+        assertEquals(RequestPriority.BULK, ConcurrencyLimitFilter.classify(archived));
+    }
+}
@@ -0,0 +1,176 @@
+package com.studypal.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+class AsyncLoggingBenchmarkTest {
+
+    private static final int REQUESTS = 500;
+    private static final int ROUNDS = 3;
+    private static final int LINES_PER_REQUEST = 5;
+    private static final long SINK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Test
+    void asyncAppenderKeepsTheSinkOffRequestLatency() throws Exception {
+        LoggerContext context = context();
+
+        Logger silentLogger = context.getLogger("bench.silent");
+        silentLogger.setLevel(Level.OFF);
+
+        SlowAppender syncSink = start(new SlowAppender(), context);
+        Logger syncLogger = context.getLogger("bench.sync");
+        syncLogger.setAdditive(false);
+        syncLogger.addAppender(syncSink);
+
+        SlowAppender asyncSink = start(new SlowAppender(), context);
+        DroppingAsyncAppender async = new DroppingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(256);
+        async.addAppender(asyncSink);
+        start(async, context);
+        Logger asyncLogger = context.getLogger("bench.async");
+        asyncLogger.setAdditive(false);
+        asyncLogger.addAppender(async);
+
+        LoggingController asyncController = new LoggingController(asyncLogger);
+        MockMvc silent = mockMvc(new LoggingController(silentLogger));
+        MockMvc sync = mockMvc(new LoggingController(syncLogger));
+        MockMvc asyncMvc = mockMvc(asyncController);
+
+        long droppedBefore = DroppingAsyncAppender.droppedCount();
+        // warm up, then alternate to spread JIT and GC noise over all three; keep the best round of each
+        for (MockMvc mvc : List.of(silent, sync, asyncMvc)) time(mvc);
+        long silentNanos = Long.MAX_VALUE, syncNanos = Long.MAX_VALUE, asyncNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            silentNanos = Math.min(silentNanos, time(silent) / REQUESTS);
+            syncNanos = Math.min(syncNanos, time(sync) / REQUESTS);
+            asyncNanos = Math.min(asyncNanos, time(asyncMvc) / REQUESTS);
+        }
+        async.stop(); // flushes what is still queued
+        long dropped = DroppingAsyncAppender.droppedCount() - droppedBefore;
+        context.stop();
+
+        String latency = "per request: no logging " + silentNanos + " ns, sync " + syncNanos + " ns, async " + asyncNanos + " ns";
+        // A synchronous sink adds LINES_PER_REQUEST * 50us to every request; the async path must add well under half of that
+        assertTrue(syncNanos - silentNanos >= LINES_PER_REQUEST * SINK_NANOS, latency);
+        assertTrue(asyncNanos - silentNanos < LINES_PER_REQUEST * SINK_NANOS / 2, latency);
+        // A 256-slot queue cannot absorb bursts of slow writes: the overflow is counted, not blocked on
+        assertTrue(dropped > 0, "dropped " + dropped);
+        // every event is either written or counted as dropped, nothing is lost silently
+        assertEquals(asyncController.lines.get(), asyncSink.count.get() + dropped);
+    }
+
+    @Test
+    void hotPathCategoryIsCappedPerSecondButWarningsPass() {
+        LoggerContext context = context();
+        RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+        filter.addCategory("com.studypal.backend.service.TaskService");
+        filter.setMaxPerSecond(10);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        CountingAppender sink = start(new CountingAppender(), context);
+        Logger hot = context.getLogger("com.studypal.backend.service.TaskService");
+        Logger other = context.getLogger("com.studypal.backend.service.DiaryService");
+        hot.addAppender(sink);
+        other.addAppender(sink);
+
+        long suppressedBefore = RateLimitingTurboFilter.suppressedCount();
+        for (int i = 0; i < 1_000; i++) hot.info("Updated task {}", i);
+        int hotInfo = sink.count.getAndSet(0);
+        for (int i = 0; i < 100; i++) hot.warn("Conflict on task {}", i);
+        int hotWarn = sink.count.getAndSet(0);
+        for (int i = 0; i < 100; i++) other.info("Diary entry {}", i);
+        int otherInfo = sink.count.get();
+        context.stop();
+
+        // At most two windows are touched if the loop straddles a second boundary
+        assertTrue(hotInfo >= 10 && hotInfo <= 20, "hot info passed: " + hotInfo);
+        assertTrue(RateLimitingTurboFilter.suppressedCount() - suppressedBefore >= 1_000 - 20);
+        assertEquals(100, hotWarn);
+        assertEquals(100, otherInfo);
+    }
+
+    private static LoggerContext context() {
+        LoggerContext context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        return context;
+    }
+
+    private static long time(MockMvc mvc) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) mvc.perform(put("/api/tasks/t" + i + "/status"));
+        return System.nanoTime() - start;
+    }
+
+    private static MockMvc mockMvc(LoggingController controller) {
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    // A handler that logs like a task write does: a few lines per request
+    @RestController
+    static class LoggingController {
+        private final Logger log;
+        final AtomicInteger lines = new AtomicInteger();
+
+        LoggingController(Logger log) {
+            this.log = log;
+        }
+
+        @PutMapping("/api/tasks/{id}/status")
+        public String updateStatus(@PathVariable String id) {
+            for (int i = 0; i < LINES_PER_REQUEST; i++) {
+                log.info("Updated task {} for user {} (step {})", id, "u1", i);
+                lines.incrementAndGet();
+            }
+            return id;
+        }
+    }
+
+    private static <A extends Appender<ILoggingEvent>> A start(A appender, LoggerContext context) {
+        appender.setContext(context);
+        appender.start();
+        return appender;
+    }
+
+    // Stands in for a console/file write that costs ~50us
+    private static class SlowAppender extends AppenderBase<ILoggingEvent> {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.getFormattedMessage();
+            LockSupport.parkNanos(SINK_NANOS);
+            count.incrementAndGet();
+        }
+    }
+
+    private static class CountingAppender extends AppenderBase<ILoggingEvent> {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            count.incrementAndGet();
+        }
+    }
+}
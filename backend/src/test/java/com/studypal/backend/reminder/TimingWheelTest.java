@@ -0,0 +1,64 @@
+package com.studypal.backend.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void firesEachEntryOnItsTickAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1000, T0);
+        Random random = new Random(7);
+        List<Long> dues = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // spread from "already due" to ~3 days, so all levels and cascades are exercised
+            long due = T0 + (long) (random.nextDouble() * 3 * 86_400_000L) - 5_000;
+            dues.add(due);
+            assertTrue(wheel.schedule("k" + i, due, due));
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = T0; now <= T0 + 3 * 86_400_000L; now += 1000) {
+            long tickEnd = now;
+            wheel.advance(now, due -> {
+                // never early, and never more than one tick late
+                assertTrue(due <= tickEnd + 999, "early: " + due + " at " + tickEnd);
+                assertTrue(due >= tickEnd - 999 || due < T0, "late: " + due + " at " + tickEnd);
+                fired.add(due);
+            });
+        }
+        assertEquals(dues.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAndRescheduleAreKeyed() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, T0);
+        wheel.schedule("task-1", T0 + 10_000, "old");
+        wheel.schedule("task-1", T0 + 20_000, "new");
+        wheel.schedule("task-2", T0 + 5_000_000, "gone");
+        assertTrue(wheel.cancel("task-2"));
+        assertFalse(wheel.cancel("task-2"));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(T0 + 15_000, fired::add);
+        assertEquals(List.of(), fired);
+        // a large jump still processes every tick in between
+        wheel.advance(T0 + 10_000_000, fired::add);
+        assertEquals(List.of("new"), fired);
+    }
+
+    @Test
+    void rejectsEntriesBeyondTheHorizon() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, T0);
+        assertFalse(wheel.schedule("far", T0 + wheel.horizonMillis(), "x"));
+        assertTrue(wheel.schedule("near", T0 + wheel.horizonMillis() - 1000, "y"));
+    }
+}
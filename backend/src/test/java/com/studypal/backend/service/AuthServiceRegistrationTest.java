@@ -0,0 +1,69 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.exception.UserAlreadyExistsException;
+import com.studypal.backend.model.User;
+import com.studypal.backend.repository.UserRepository;
+import com.studypal.backend.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuthServiceRegistrationTest {
+
+    private final UserRepository repository = mock(UserRepository.class);
+    private final AuthService authService = new AuthService(repository, new PlainEncoder(), mock(JwtUtil.class));
+
+    @Test
+    void registrationInsertsTheNormalizedEmailWithoutReadingFirst() {
+        when(repository.insert(any(User.class))).thenAnswer(inv -> {
+            User user = inv.getArgument(0);
+            user.setId("u1");
+            return user;
+        });
+
+        ResponseEntity<?> response = authService.register(new User("Alice", " Alice@Example.COM ", "secret"));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("u1", ((Map<?, ?>) response.getBody()).get("userId"));
+        ArgumentCaptor<User> inserted = ArgumentCaptor.forClass(User.class);
+        verify(repository).insert(inserted.capture());
+        assertEquals("alice@example.com", inserted.getValue().getEmail());
+        assertEquals("plain:secret", inserted.getValue().getPassword());
+        verify(repository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void duplicateKeyFromTheEmailIndexIsAConflict() {
+        when(repository.insert(any(User.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error collection: study_pal.users index: email_1"));
+
+        UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> authService.register(new User("Alice", "Alice@Example.com", "secret")));
+
+        assertTrue(e.getMessage().contains("alice@example.com"), e.getMessage());
+        verify(repository, times(1)).insert(any(User.class));
+        verify(repository, never()).findByEmail(anyString());
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence raw) {
+            return "plain:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            return encoded.equals(encode(raw));
+        }
+    }
+}
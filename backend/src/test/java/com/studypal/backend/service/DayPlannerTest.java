@@ -0,0 +1,100 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.model.Task;
+import com.studypal.backend.payload.DayPlan;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayPlannerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void dueTodayGoesBeforeHigherPriorityLaterWork() {
+        Task later = task("later", "HIGH", DAY.plusDays(10).atTime(12, 0), 3);
+        Task dueToday = task("today", "LOW", DAY.atTime(17, 0), 2);
+        Task tooBig = task("big", "HIGH", DAY.plusDays(1).atTime(12, 0), 9);
+
+        DayPlan plan = DayPlanner.plan("u1", DAY, 6, List.of(later, dueToday, tooBig), false);
+
+        assertEquals(List.of("today", "later"), plan.getItems().stream().map(DayPlan.Item::getTaskId).toList());
+        assertEquals(5, plan.getScheduledHours());
+        assertEquals(2, plan.getItems().get(1).getStartOffsetHours());
+        assertEquals(1, plan.getDeferredCount());
+    }
+
+    @Test
+    void knapsackFillsHoursGreedyLeavesIdle() {
+        // Greedy takes the 5h HIGH task and cannot fit either 4h task into the remaining 3h
+        Task a = task("a", "HIGH", null, 5);
+        Task b = task("b", "MEDIUM", null, 4);
+        Task c = task("c", "MEDIUM", null, 4);
+
+        assertEquals(5, DayPlanner.plan("u1", DAY, 8, List.of(a, b, c), false).getScheduledHours());
+        assertEquals(8, DayPlanner.plan("u1", DAY, 8, List.of(a, b, c), true).getScheduledHours());
+    }
+
+    @Test
+    void tasksStartingAfterTheDayAreSkipped() {
+        Task future = task("future", "HIGH", null, 1);
+        future.setStartDate(DAY.plusDays(1).atStartOfDay());
+
+        assertTrue(DayPlanner.plan("u1", DAY, 8, List.of(future), false).getItems().isEmpty());
+    }
+
+    // Benchmark: plan generation for 10k open tasks must stay under 10 ms. Wall-clock limits are flaky on
+    // shared CI machines, so it only runs on request: mvn test -Dbenchmarks=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void plansTenThousandTasksUnderTenMillis() {
+        Random random = new Random(42);
+        String[] priorities = {"HIGH", "MEDIUM", "LOW"};
+        List<Task> tasks = new ArrayList<>(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime deadline = random.nextInt(5) == 0 ? null : DAY.atStartOfDay().plusHours(random.nextInt(24 * 60) - 24 * 7);
+            tasks.add(task("t" + i, priorities[random.nextInt(3)], deadline, random.nextInt(6)));
+        }
+
+        for (int i = 0; i < 200; i++) { // warm up the JIT
+            DayPlanner.plan("u1", DAY, 8, tasks, i % 2 == 0);
+        }
+
+        long[] greedy = new long[51];
+        long[] optimized = new long[51];
+        for (int i = 0; i < greedy.length; i++) {
+            long start = System.nanoTime();
+            DayPlanner.plan("u1", DAY, 8, tasks, false);
+            greedy[i] = System.nanoTime() - start;
+            start = System.nanoTime();
+            DayPlanner.plan("u1", DAY, 8, tasks, true);
+            optimized[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(greedy);
+        Arrays.sort(optimized);
+        double greedyMs = greedy[greedy.length / 2] / 1e6;
+        double optimizedMs = optimized[optimized.length / 2] / 1e6;
+        assertTrue(greedyMs < 10, "greedy plan took " + greedyMs + " ms");
+        assertTrue(optimizedMs < 10, "optimized plan took " + optimizedMs + " ms");
+    }
+
+    private static Task task(String id, String priority, LocalDateTime deadline, int hours) {
+        Task t = new Task();
+        t.setId(id);
+        t.setUserId("u1");
+        t.setTitle(id);
+        t.setPriority(priority);
+        t.setDeadline(deadline);
+        t.setEstimatedHours(hours);
+        t.setStatus("TO_DO");
+        return t;
+    }
+}
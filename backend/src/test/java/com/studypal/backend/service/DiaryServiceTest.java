@@ -0,0 +1,197 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.model.DiaryEntry;
+import com.studypal.backend.model.DiarySummary;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.repository.DiaryEntryRepository;
+import com.studypal.backend.repository.DiarySummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DiaryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final DiaryEntryRepository entryRepository = mock(DiaryEntryRepository.class);
+    private final DiarySummaryRepository summaryRepository = mock(DiarySummaryRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final DiaryService diaryService = new DiaryService(entryRepository, summaryRepository, mongoTemplate);
+
+    @BeforeEach
+    void setUp() {
+        // every save is a first entry for its day, with two tasks completed that day
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DiaryEntry.class)))
+                .thenReturn(null);
+        when(mongoTemplate.count(any(Query.class), eq(Task.class))).thenReturn(2L);
+        when(mongoTemplate.count(any(Query.class), eq(TaskArchiver.ARCHIVE))).thenReturn(0L);
+    }
+
+    @Test
+    void summaryUpdateIsReappliedToTheConcurrentWritersVersion() {
+        // yesterday's entry lands between this writer's read and its save
+        when(summaryRepository.findById("u1"))
+                .thenReturn(Optional.of(summary(3, TODAY.minusDays(2), 3)))
+                .thenReturn(Optional.of(summary(4, TODAY.minusDays(1), 4)));
+        when(summaryRepository.save(any(DiarySummary.class)))
+                .thenThrow(new OptimisticLockingFailureException("version changed"))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        diaryService.saveEntry("u1", TODAY, entry(4));
+
+        ArgumentCaptor<DiarySummary> saved = ArgumentCaptor.forClass(DiarySummary.class);
+        verify(summaryRepository, times(2)).save(saved.capture());
+        DiarySummary last = saved.getAllValues().get(1);
+        assertEquals(5, last.getTotalEntries());
+        assertEquals(5, last.getCurrentStreak());
+        assertEquals(TODAY, last.getLastEntryDate());
+        assertEquals(2, last.getSumY());
+    }
+
+    @Test
+    void summaryUpdateGivesUpAfterRepeatedConflicts() {
+        when(summaryRepository.findById("u1")).thenAnswer(inv -> Optional.of(summary(0, null, 0)));
+        when(summaryRepository.save(any(DiarySummary.class))).thenThrow(new OptimisticLockingFailureException("version changed"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> diaryService.saveEntry("u1", TODAY, entry(4)));
+        verify(summaryRepository, times(5)).save(any(DiarySummary.class));
+    }
+
+    @Test
+    void streakRestartsAfterAGap() {
+        DiarySummary stored = summary(6, TODAY.minusDays(3), 6);
+        stored.setLongestStreak(6);
+        when(summaryRepository.findById("u1")).thenReturn(Optional.of(stored));
+        when(summaryRepository.save(any(DiarySummary.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        diaryService.saveEntry("u1", TODAY, entry(3));
+
+        assertEquals(1, stored.getCurrentStreak());
+        assertEquals(6, stored.getLongestStreak());
+        assertEquals(TODAY, stored.getLastEntryDate());
+    }
+
+    @Test
+    void streakEndingBeforeYesterdayIsNotCurrent() {
+        when(summaryRepository.findById("u1")).thenReturn(Optional.of(summary(6, TODAY.minusDays(2), 6)));
+
+        assertEquals(0, diaryService.getSummary("u1").getCurrentStreak());
+    }
+
+    @Test
+    void backfilledDayRescansTheStreak() {
+        when(summaryRepository.findById("u1")).thenReturn(Optional.of(summary(2, TODAY, 1)));
+        when(summaryRepository.save(any(DiarySummary.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(mongoTemplate.find(any(Query.class), eq(DiaryEntry.class)))
+                .thenReturn(List.of(dated(TODAY.minusDays(2)), dated(TODAY.minusDays(1)), dated(TODAY)));
+
+        diaryService.saveEntry("u1", TODAY.minusDays(1), entry(3));
+
+        ArgumentCaptor<DiarySummary> saved = ArgumentCaptor.forClass(DiarySummary.class);
+        verify(summaryRepository).save(saved.capture());
+        assertEquals(3, saved.getValue().getCurrentStreak());
+        assertEquals(3, saved.getValue().getLongestStreak());
+        assertEquals(TODAY, saved.getValue().getLastEntryDate());
+    }
+
+    @Test
+    void correlationNeedsTwoRatedDays() {
+        DiarySummary summary = summary(0, null, 0);
+        when(summaryRepository.findById("u1")).thenReturn(Optional.of(summary));
+        when(summaryRepository.save(any(DiarySummary.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertNull(summary.getRatingTaskCorrelation());
+        diaryService.saveEntry("u1", TODAY.minusDays(1), entry(2));
+        assertNull(summary.getRatingTaskCorrelation());
+
+        when(mongoTemplate.count(any(Query.class), eq(Task.class))).thenReturn(5L);
+        diaryService.saveEntry("u1", TODAY, entry(4));
+        assertEquals(1.0, summary.getRatingTaskCorrelation(), 1e-9);
+        assertEquals(3.0, summary.getAverageRating(), 1e-9);
+    }
+
+    @Test
+    void unratedEntriesDoNotCountTowardsTheCorrelation() {
+        DiarySummary summary = summary(0, null, 0);
+        when(summaryRepository.findById("u1")).thenReturn(Optional.of(summary));
+        when(summaryRepository.save(any(DiarySummary.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        diaryService.saveEntry("u1", TODAY.minusDays(1), new DiaryEntry());
+        diaryService.saveEntry("u1", TODAY, new DiaryEntry());
+
+        assertEquals(2, summary.getTotalEntries());
+        assertEquals(0, summary.getRatedEntries());
+        assertNull(summary.getRatingTaskCorrelation());
+    }
+
+    @Test
+    void laterCompletionsRaiseTheDaysEntryAndItsSums() {
+        DiaryEntry stored = entry(4);
+        stored.setId("u1:" + TODAY);
+        stored.setDate(TODAY);
+        stored.setTasksCompleted(2);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(DiaryEntry.class)))
+                .thenReturn(stored);
+        DiarySummary summary = summary(1, TODAY, 1);
+        summary.setRatedEntries(1);
+        summary.setSumX(4);
+        summary.setSumY(2);
+        summary.setSumYY(4);
+        summary.setSumXY(8);
+        when(summaryRepository.findById("u1")).thenReturn(Optional.of(summary));
+        when(summaryRepository.save(any(DiarySummary.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        diaryService.recordCompletions("u1", TODAY, 3);
+
+        assertEquals(1, summary.getTotalEntries());
+        assertEquals(5, summary.getSumY());
+        assertEquals(25, summary.getSumYY());
+        assertEquals(20, summary.getSumXY());
+        assertEquals(1, summary.getCurrentStreak());
+    }
+
+    @Test
+    void completionsOnADayWithoutAnEntryLeaveTheSummaryAlone() {
+        diaryService.recordCompletions("u1", TODAY, 3);
+
+        verifyNoInteractions(summaryRepository);
+    }
+
+    private static DiarySummary summary(long totalEntries, LocalDate lastEntryDate, int currentStreak) {
+        DiarySummary summary = new DiarySummary();
+        summary.setUserId("u1");
+        summary.setTotalEntries(totalEntries);
+        summary.setLastEntryDate(lastEntryDate);
+        summary.setCurrentStreak(currentStreak);
+        summary.setLongestStreak(currentStreak);
+        return summary;
+    }
+
+    private static DiaryEntry entry(int rating) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setContent("Revised chapter 3");
+        entry.setProductivity(rating);
+        entry.setFocus(rating);
+        return entry;
+    }
+
+    private static DiaryEntry dated(LocalDate date) {
+        DiaryEntry entry = new DiaryEntry();
+        entry.setDate(date);
+        return entry;
+    }
+}
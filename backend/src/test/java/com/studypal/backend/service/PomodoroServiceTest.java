@@ -0,0 +1,148 @@
+package com.studypal.backend.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.studypal.backend.model.PomodoroEvent;
+import com.studypal.backend.model.PomodoroEventReceipt;
+import com.studypal.backend.model.PomodoroRollup;
+import com.studypal.backend.repository.PomodoroRollupRepository;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PomodoroServiceTest {
+
+    private static final LocalDateTime WEDNESDAY = LocalDateTime.of(2025, 3, 12, 9, 30);
+    private static final String TASK = new ObjectId().toHexString();
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations receipts = mock(BulkOperations.class, RETURNS_SELF);
+    private final BulkOperations events = mock(BulkOperations.class, RETURNS_SELF);
+    private final BulkOperations rollups = mock(BulkOperations.class, RETURNS_SELF);
+    private final PomodoroService pomodoroService = new PomodoroService(mongoTemplate, mock(PomodoroRollupRepository.class));
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(PomodoroEventReceipt.class))).thenReturn(receipts);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(PomodoroEvent.class))).thenReturn(events);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(PomodoroRollup.class))).thenReturn(rollups);
+    }
+
+    @Test
+    void sessionIsFoldedIntoDailyAndWeeklyRollupsOnce() {
+        int ingested = pomodoroService.ingest("u1", List.of(
+                event("e1", "start", 0), event("e2", "INTERRUPT", 300), event("e3", "STOP", 900)));
+
+        assertEquals(3, ingested);
+        verify(events).insert(anyList());
+        Map<String, Document> incs = rollupIncrements();
+        assertEquals(Set.of("u1:DAILY:2025-03-12", "u1:WEEKLY:2025-03-10"), incs.keySet());
+        for (Document inc : incs.values()) {
+            assertEquals(1L, ((Number) inc.get("sessions")).longValue());
+            assertEquals(1L, ((Number) inc.get("interruptions")).longValue());
+            assertEquals(1200L, ((Number) inc.get("focusSeconds")).longValue());
+            assertEquals(1200L, ((Number) inc.get("tasks." + TASK + ".focusSeconds")).longValue());
+        }
+    }
+
+    @Test
+    void retriedEventsAreSkipped() {
+        doThrow(duplicates(0, 2)).when(receipts).execute();
+
+        int ingested = pomodoroService.ingest("u1", List.of(
+                event("e1", "START", 0), event("e2", "STOP", 600), event("e3", "STOP", 900)));
+
+        assertEquals(1, ingested);
+        ArgumentCaptor<List<PomodoroEvent>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(events).insert(inserted.capture());
+        assertEquals(List.of("e2"), inserted.getValue().stream().map(PomodoroEvent::getEventId).toList());
+        assertEquals(600L, ((Number) rollupIncrements().get("u1:DAILY:2025-03-12").get("focusSeconds")).longValue());
+    }
+
+    @Test
+    void fullyRetriedBatchWritesNothing() {
+        doThrow(duplicates(0, 1)).when(receipts).execute();
+
+        assertEquals(0, pomodoroService.ingest("u1", List.of(event("e1", "START", 0), event("e2", "STOP", 600))));
+
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(PomodoroEvent.class));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(PomodoroRollup.class));
+    }
+
+    @Test
+    void failedWriteReleasesTheClaimSoTheRetryIsIngested() {
+        doThrow(new DataAccessResourceFailureException("connection reset")).when(rollups).execute();
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> pomodoroService.ingest("u1", List.of(event("e1", "START", 0), event("e2", "STOP", 600))));
+
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(released.capture(), eq(PomodoroEventReceipt.class));
+        Document ids = released.getValue().getQueryObject().get("id", Document.class);
+        assertEquals(List.of("u1:e1", "u1:e2"), ids.get("$in"));
+    }
+
+    @Test
+    void taskIdMustBeAnObjectId() {
+        PomodoroEvent e = event("e1", "START", 0);
+        e.setTaskId("tasks.$where");
+
+        assertThrows(RuntimeException.class, () -> pomodoroService.ingest("u1", List.of(e)));
+        verifyNoInteractions(receipts);
+    }
+
+    // $inc document of every upserted rollup, by rollup id
+    private Map<String, Document> rollupIncrements() {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(rollups, atLeastOnce()).upsert(queries.capture(), updates.capture());
+        Map<String, Document> incs = new HashMap<>();
+        for (int i = 0; i < queries.getAllValues().size(); i++) {
+            incs.put(queries.getAllValues().get(i).getQueryObject().getString("id"),
+                    updates.getAllValues().get(i).getUpdateObject().get("$inc", Document.class));
+        }
+        return incs;
+    }
+
+    private static BulkOperationException duplicates(int... indexes) {
+        List<BulkWriteError> errors = new ArrayList<>();
+        for (int index : indexes) errors.add(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), index));
+        return new BulkOperationException("duplicate receipts", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), errors, null, new ServerAddress(), Set.of()));
+    }
+
+    private static PomodoroEvent event(String eventId, String type, long focusSeconds) {
+        PomodoroEvent e = new PomodoroEvent();
+        e.setEventId(eventId);
+        e.setType(type);
+        e.setTaskId(TASK);
+        e.setSessionId("s1");
+        e.setTimestamp(WEDNESDAY);
+        e.setFocusSeconds(focusSeconds);
+        return e;
+    }
+}
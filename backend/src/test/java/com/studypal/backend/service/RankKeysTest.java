@@ -0,0 +1,88 @@
+package com.studypal.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankKeysTest {
+
+    @Test
+    void betweenSortsStrictlyInsideItsBounds() {
+        assertBetween(null, null);
+        assertBetween("a", null);
+        assertBetween(null, "a");
+        assertBetween("a", "b");
+        assertBetween("a", "a1");
+        assertBetween("az", "b");
+        assertBetween("0", "01");
+        assertBetween("zz", null);
+    }
+
+    @Test
+    void betweenRejectsBoundsOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("a", "a"));
+    }
+
+    @Test
+    void repeatedInsertsIntoOneGapStayOrdered() {
+        String lower = "a";
+        String upper = "b";
+        for (int i = 0; i < 200; i++) {
+            String mid = assertBetween(lower, upper);
+            if (i % 2 == 0) lower = mid;
+            else upper = mid;
+        }
+    }
+
+    @Test
+    void randomInsertsKeepTheColumnSorted() {
+        Random random = new Random(42);
+        List<String> column = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int at = random.nextInt(column.size() + 1);
+            String lower = at == 0 ? null : column.get(at - 1);
+            String upper = at == column.size() ? null : column.get(at);
+            column.add(at, assertBetween(lower, upper));
+        }
+        for (int i = 1; i < column.size(); i++) {
+            assertTrue(column.get(i - 1).compareTo(column.get(i)) < 0, column.get(i - 1) + " / " + column.get(i));
+        }
+    }
+
+    @Test
+    void afterAppendsPastTheLastKey() {
+        assertNotNull(RankKeys.after(null));
+        for (String last : List.of("0", "a", "y", "z", "zz", "a0", "zzy", "zzz")) {
+            String next = RankKeys.after(last);
+            assertTrue(next.compareTo(last) > 0, last + " -> " + next);
+            assertBetween(last, next);
+        }
+    }
+
+    @Test
+    void spreadLeavesRoomAroundEveryKey() {
+        for (int n : new int[]{1, 2, 35, 36, 37, 1000, 5000}) {
+            String[] keys = RankKeys.spread(n);
+            assertEquals(n, keys.length);
+            assertBetween(null, keys[0]);
+            for (int i = 1; i < n; i++) {
+                assertTrue(keys[i - 1].compareTo(keys[i]) < 0, keys[i - 1] + " / " + keys[i]);
+                assertBetween(keys[i - 1], keys[i]);
+            }
+            assertBetween(keys[n - 1], null);
+        }
+    }
+
+    private static String assertBetween(String lower, String upper) {
+        String key = RankKeys.between(lower, upper);
+        if (lower != null) assertTrue(key.compareTo(lower) > 0, lower + " < " + key);
+        if (upper != null) assertTrue(key.compareTo(upper) < 0, key + " < " + upper);
+        for (char c : key.toCharArray()) assertTrue(RankKeys.ALPHABET.indexOf(c) >= 0, key);
+        return key;
+    }
+}
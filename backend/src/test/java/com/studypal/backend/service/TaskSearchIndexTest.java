@@ -0,0 +1,124 @@
+package com.studypal.backend.service;
+
+import com.studypal.backend.event.TaskChangedEvent;
+import com.studypal.backend.model.Task;
+import com.studypal.backend.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskSearchIndexTest {
+
+    @Test
+    void findsSubstringsOfTitleAndDescriptionCaseInsensitively() {
+        TaskSearchIndex.UserIndex index = new TaskSearchIndex.UserIndex();
+        index.put(task("t1", "Physics Lab Report", "measure pendulum period"));
+        index.put(task("t2", "Essay draft", "history of PHYSICS"));
+        index.put(task("t3", "Groceries", null));
+
+        assertEquals(List.of("t1", "t2"), index.search("physics"));
+        assertEquals(List.of("t1"), index.search("pendulum"));
+        assertEquals(List.of("t3"), index.search("gro"));      // single gram lookup
+        assertEquals(List.of("t1"), index.search("b r"));      // grams span spaces
+        assertEquals(List.of(), index.search("chemistry"));
+        assertEquals(List.of(), index.search(""));
+    }
+
+    @Test
+    void longQueriesAreVerifiedAgainstTheText() {
+        // every trigram of "abcd" occurs, but never contiguously
+        TaskSearchIndex.UserIndex index = new TaskSearchIndex.UserIndex();
+        index.put(task("t1", "abc bcd", null));
+        index.put(task("t2", "xabcdx", null));
+
+        assertEquals(List.of("t2"), index.search("abcd"));
+    }
+
+    @Test
+    void ranksTitlePrefixThenWordPrefixThenInfixThenDescription() {
+        TaskSearchIndex.UserIndex index = new TaskSearchIndex.UserIndex();
+        index.put(task("description", "Groceries", "read the math notes"));
+        index.put(task("infix", "Aftermath", null));
+        index.put(task("word", "Review math", null));
+        index.put(task("prefix", "Math homework", null));
+        index.put(task("infix2", "Aftermath two", null));
+
+        // equal scores keep insertion order
+        assertEquals(List.of("prefix", "word", "infix", "infix2", "description"), index.search("math"));
+    }
+
+    @Test
+    void updatesReplaceOldTextAndDeletesDisappear() {
+        TaskSearchIndex.UserIndex index = new TaskSearchIndex.UserIndex();
+        index.put(task("t1", "Old title", null));
+        index.put(task("t2", "Other", null));
+
+        index.put(task("t1", "New title", null));
+        assertEquals(List.of(), index.search("old"));
+        assertEquals(List.of("t1"), index.search("new"));
+
+        index.remove("t2");
+        index.remove("missing");
+        assertEquals(List.of(), index.search("other"));
+        assertEquals(1, index.liveCount());
+    }
+
+    @Test
+    void compactionDropsTombstonesAndKeepsResults() {
+        TaskSearchIndex.UserIndex index = new TaskSearchIndex.UserIndex();
+        for (int i = 0; i < 200; i++) index.put(task("t" + i, "task number " + i, "details " + i));
+        long full = index.estimatedBytes();
+
+        // 150 removals: tombstones outnumber live slots past the threshold, so the index is rebuilt
+        for (int i = 0; i < 150; i++) index.remove("t" + i);
+        assertEquals(50, index.liveCount());
+        assertTrue(index.estimatedBytes() < full, "compaction should shrink the index");
+
+        assertEquals(List.of("t199"), index.search("number 199"));
+        assertEquals(List.of(), index.search("number 10 "));
+        assertEquals(50, index.search("task").size());
+        index.put(task("t150", "renamed", null));
+        assertEquals(List.of("t150"), index.search("renamed"));
+    }
+
+    @Test
+    void estimatedBytesFollowsIndexedText() {
+        TaskSearchIndex.UserIndex small = new TaskSearchIndex.UserIndex();
+        small.put(task("t1", "short", null));
+        TaskSearchIndex.UserIndex large = new TaskSearchIndex.UserIndex();
+        large.put(task("t1", "short", "a much longer description with many distinct grams 0123456789"));
+
+        assertTrue(small.estimatedBytes() > 0);
+        assertTrue(large.estimatedBytes() > small.estimatedBytes());
+    }
+
+    @Test
+    void buildsLazilyAndFollowsTaskEvents() {
+        TaskRepository repository = mock(TaskRepository.class);
+        when(repository.findByUserId("u1")).thenReturn(List.of(task("t1", "Lab report", null)));
+        TaskSearchIndex search = new TaskSearchIndex(repository, true, 1 << 20);
+
+        assertEquals(List.of("t1"), search.search("u1", "lab"));
+        search.onTaskChanged(new TaskChangedEvent("u1", "t2", TaskChangedEvent.Type.CREATED, task("t2", "Lab quiz", null)));
+        search.onTaskChanged(new TaskChangedEvent("u1", "t1", TaskChangedEvent.Type.DELETED, task("t1", "Lab report", null)));
+        assertEquals(List.of("t2"), search.search("u1", "LAB"));
+        verify(repository, times(1)).findByUserId("u1");
+
+        // bulk creations (imports) drop the index; the next query rebuilds it
+        search.onTaskChanged(new TaskChangedEvent("u1", null, TaskChangedEvent.Type.CREATED, null));
+        search.search("u1", "lab");
+        verify(repository, times(2)).findByUserId("u1");
+    }
+
+    private static Task task(String id, String title, String description) {
+        Task t = new Task();
+        t.setId(id);
+        t.setUserId("u1");
+        t.setTitle(title);
+        t.setDescription(description);
+        return t;
+    }
+}
@@ -0,0 +1,155 @@
+package com.studypal.backend.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.studypal.backend.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class RequestTracingOverheadTest {
+
+    // Conservative /api/tasks/user/{id} latency with a local Mongo round trip; the budget is 2% of it
+    private static final long REFERENCE_REQUEST_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int WARMUP = 20_000;
+    private static final int ROUNDS = 10_000;
+
+    @Test
+    void serverTimingHeaderListsEveryPhase() throws Exception {
+        MvcResult result = mockMvc(true).perform(get("/api/tasks/user/u1")).andReturn();
+
+        String header = result.getResponse().getHeader(TracingFilter.HEADER);
+        assertNotNull(header);
+        for (String metric : List.of("filter;dur=", "interceptor;dur=", "handler;dur=", "db;dur=", "total;dur=")) {
+            assertTrue(header.contains(metric), header);
+        }
+        // the body is streamed after the header is committed, so serialization only reaches the exported trace
+        assertFalse(header.contains("ser;dur="), header);
+        assertTrue(header.contains("db;dur=0.30;desc=\"1\""), header);
+        assertTrue(result.getResponse().getContentAsString().startsWith("[{\"id\":\"t0\""));
+    }
+
+    @Test
+    void tracingOverheadStaysUnderTwoPercentOfARequest() throws Exception {
+        // MockMvc's own per-request cost is far noisier than the tracing path, so time exactly what
+        // tracing adds: the phase bookkeeping, header formatting and the serialization timer
+        TracingJacksonConverter converter = new TracingJacksonConverter(new ObjectMapper().registerModule(new JavaTimeModule()));
+        List<Task> body = new FakeTaskController().tasks("u1");
+        run(converter, body, false, WARMUP);
+        run(converter, body, true, WARMUP);
+
+        // alternate to spread JIT and GC noise over both sides; keep the best of several rounds
+        long tracedBest = Long.MAX_VALUE, plainBest = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            plainBest = Math.min(plainBest, run(converter, body, false, ROUNDS));
+            tracedBest = Math.min(tracedBest, run(converter, body, true, ROUNDS));
+        }
+        long overheadNanos = Math.max(0, tracedBest - plainBest) / ROUNDS;
+        System.out.printf("tracing overhead: %.2f us per request (serialization alone %.1f us; %.2f%% of a 1 ms request)%n",
+                overheadNanos / 1000.0, plainBest / 1000.0 / ROUNDS, 100.0 * overheadNanos / REFERENCE_REQUEST_NANOS);
+
+        assertTrue(overheadNanos < REFERENCE_REQUEST_NANOS * 2 / 100, "overhead " + overheadNanos + " ns");
+    }
+
+    // One request's worth of work: Jackson-serialize the body, with or without the full trace lifecycle around it
+    private static long run(TracingJacksonConverter converter, List<Task> body, boolean traced, int requests) throws Exception {
+        MockHttpOutputMessage[] sinks = new MockHttpOutputMessage[requests];
+        for (int i = 0; i < requests; i++) sinks[i] = new MockHttpOutputMessage();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            RequestTrace trace = traced ? RequestTrace.begin() : null;
+            if (traced) {
+                trace.enter(RequestTrace.Phase.FILTER);
+                RequestTrace.startNested(RequestTrace.Phase.AUTH);
+                RequestTrace.stopNested(RequestTrace.Phase.AUTH);
+                trace.enter(RequestTrace.Phase.INTERCEPTOR);
+                trace.enter(RequestTrace.Phase.HANDLER);
+                trace.add(RequestTrace.Phase.DB, 300_000);
+            }
+            converter.write(body, null, MediaType.APPLICATION_JSON, sinks[i]);
+            if (traced) trace.end();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static MockMvc mockMvc(boolean tracing) {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        var builder = MockMvcBuilders.standaloneSetup(new FakeTaskController())
+                .setMessageConverters(new TracingJacksonConverter(mapper))
+                .addMappedInterceptors(new String[]{"/api/**"}, new PhaseInterceptor(RequestTrace.Phase.INTERCEPTOR))
+                .addMappedInterceptors(new String[]{"/api/**"}, new PhaseInterceptor(RequestTrace.Phase.HANDLER));
+        if (tracing) builder.addFilters(new TracingFilter(new OtlpFileExporter("", 0), true));
+        return builder.build();
+    }
+
+    @RestController
+    static class FakeTaskController {
+        private final List<Task> tasks = new ArrayList<>();
+
+        FakeTaskController() {
+            for (int i = 0; i < 20; i++) {
+                Task t = new Task();
+                t.setId("t" + i);
+                t.setUserId("u1");
+                t.setTitle("Read chapter " + i);
+                t.setStatus("TODO");
+                t.setPriority("MEDIUM");
+                t.setDeadline(LocalDateTime.of(2025, 3, 10, 12, 0).plusDays(i));
+                tasks.add(t);
+            }
+        }
+
+        @GetMapping("/api/tasks/user/{userId}")
+        public List<Task> tasks(@PathVariable String userId) {
+            // stands in for the repository call the Mongo listener would report
+            RequestTrace trace = RequestTrace.current();
+            if (trace != null) trace.add(RequestTrace.Phase.DB, 300_000);
+            return tasks;
+        }
+    }
+
+    @Test
+    void serializationIsTimedWhileStreaming() throws Exception {
+        TracingJacksonConverter converter = new TracingJacksonConverter(new ObjectMapper().registerModule(new JavaTimeModule()));
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        RequestTrace trace = RequestTrace.begin();
+        trace.enter(RequestTrace.Phase.HANDLER);
+        converter.write(new FakeTaskController().tasks("u1"), null, MediaType.APPLICATION_JSON, out);
+        trace.end();
+
+        assertTrue(out.getHeaders().getFirst(TracingFilter.HEADER).contains("handler;dur="));
+        assertTrue(out.getBodyAsString().startsWith("[{\"id\":\"t0\""));
+        String json = new OtlpFileExporter("", 0).toOtlp(trace.snapshot("GET", "/api/tasks/user/u1", 200)).toString();
+        assertTrue(json.contains("name=ser"), json);
+    }
+
+    @Test
+    void sampledTraceMapsToOtlpJson() {
+        RequestTrace trace = RequestTrace.begin();
+        trace.enter(RequestTrace.Phase.FILTER);
+        trace.enter(RequestTrace.Phase.HANDLER);
+        trace.add(RequestTrace.Phase.DB, 1_000);
+        trace.end();
+
+        Map<String, Object> otlp = new OtlpFileExporter("", 0).toOtlp(trace.snapshot("GET", "/api/tasks/1", 200));
+        String json = otlp.toString();
+        assertTrue(json.contains("name=GET /api/tasks/1"), json);
+        assertTrue(json.contains("name=db"), json);
+        assertFalse(json.contains("name=ser"), json);
+    }
+}
@@ -60,9 +60,12 @@ export default function TaskList({ reload }) {
   const updateTask = async (taskId, updates) => {
     try {
       const taskToUpdate = tasks.find(t => (t.id || t._id) === taskId);
-      const updatedTaskData = { ...taskToUpdate, ...updates };
-      
-      const res = await api.put(`/tasks/${taskId}`, updatedTaskData);
+      const fields = Object.keys(updates);
+
+      // Send only the changed fields; status changes use the dedicated fast path
+      const res = fields.length === 1 && fields[0] === 'status'
+        ? await api.put(`/tasks/${taskId}/status`, { status: updates.status, version: taskToUpdate?.version })
+        : await api.patch(`/tasks/${taskId}`, { ...updates, version: taskToUpdate?.version });
       console.log('Updated task:', res.data);
       
       // Update local state
@@ -16,7 +16,7 @@ const Register = () => {
       await auth.register(form);
       navigate('/login');
     } catch (err) {
-      setError(err.response?.data?.message || err.message);
+      setError(err.response?.data?.error || err.response?.data?.message || err.message);
     }
   };
 